@@ -0,0 +1,256 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Symulator balansu: tysiące pełnych gier (20 fal) bez okna, każda z własnym ziarnem,
+// dla skryptowych układów wież zbudowanych z fabryk TowerFactoryManager.
+// Raport: odsetek przeciekających wrogów i pieniądze na starcie każdej fali, rozkład fali śmierci,
+// przepustowość w grach na sekundę na rdzeń.
+//
+// Uruchomienie (po mvn package):
+//   java -Djava.awt.headless=true -cp game/target/tdefense-1.0-SNAPSHOT.jar:bench/target/tdefense-bench-1.0-SNAPSHOT.jar BalanceSimulator [gier] [ziarno] [pieniądze] [filtr]
+public class BalanceSimulator {
+    private static final int DEFAULT_GAMES = 1000;
+    private static final int DEFAULT_MONEY = 500;   // budżet startowy (sama gra startuje na razie z 10 000 000)
+    private static final int TOWERS_PER_LAYOUT = 16;
+    private static final long MAX_TICKS = 2_000_000;   // zabezpieczenie przed grą, która się nie kończy
+
+    // Wieża stawiana w fazie przygotowań, gdy tylko starczy pieniędzy (kolejność jest zachowana)
+    static final class Placement {
+        final String type;
+        final int col, row;
+
+        Placement(String type, int col, int row) {
+            this.type = type;
+            this.col = col;
+            this.row = row;
+        }
+    }
+
+    static final class Layout {
+        final String name;
+        final List<Placement> placements;
+
+        Layout(String name, List<Placement> placements) {
+            this.name = name;
+            this.placements = placements;
+        }
+    }
+
+    static final class GameResult {
+        final long seed;
+        boolean won;
+        int deathWave;   // 0 gdy gra wygrana
+        long ticks;
+        final int[] spawned = new int[WaveManager.LAST_WAVE + 1];
+        final int[] leaked = new int[WaveManager.LAST_WAVE + 1];
+        final int[] moneyAtStart = new int[WaveManager.LAST_WAVE + 1];
+        final boolean[] reached = new boolean[WaveManager.LAST_WAVE + 1];
+
+        GameResult(long seed) { this.seed = seed; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        long baseSeed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        int money = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MONEY;
+        String filter = args.length > 3 ? args[3] : "";
+
+        EnemyCache.loadCache();
+
+        int workers = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Gier na układ: %d, ziarno: %d, budżet: %d$, wątki: %d%n", games, baseSeed, money, workers);
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            for (Layout layout : defaultLayouts(new GameManager(), TowerFactoryManager.getInstance())) {
+                if (!layout.name.contains(filter)) continue;
+                long start = System.nanoTime();
+                GameResult[] results = runAll(executor, layout, games, baseSeed, money);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                report(layout, results, seconds, workers);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    static GameResult[] runAll(ExecutorService executor, Layout layout, int games, long baseSeed, int money)
+            throws Exception {
+        List<Future<GameResult>> futures = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            long seed = baseSeed + i;
+            // każda gra z własnym GameManagerem - wątki puli nie dzielą stanu gry
+            futures.add(executor.submit(() -> playGame(quietSimulation(), layout, seed, money)));
+        }
+        // wyniki w kolejności ziaren, niezależnie od tego, który wątek skończył pierwszy
+        GameResult[] results = new GameResult[games];
+        for (int i = 0; i < games; i++) results[i] = futures.get(i).get();
+        return results;
+    }
+
+    // Bez komunikatów gry na konsoli - w raporcie są tylko wyniki
+    private static Simulation quietSimulation() {
+        Simulation sim = new Simulation(new GameManager());
+        sim.setQuiet(true);
+        return sim;
+    }
+
+    static GameResult playGame(Simulation sim, Layout layout, long seed, int money) {
+        GameManager gm = sim.getGameManager();
+        WaveManager waves = sim.getWaveManager();
+        GameResult result = new GameResult(seed);
+
+        sim.startGame(seed);
+        gm.money = money;
+
+        int next = 0;
+        int wave = 0, livesAtStart = 0;
+        while (gm.state != GameState.GAME_OVER && result.ticks < MAX_TICKS) {
+            if (gm.state == GameState.PREP_PHASE) {
+                wave = gm.wave;
+                livesAtStart = gm.lives;
+                result.reached[wave] = true;
+                result.moneyAtStart[wave] = gm.money;   // przed dokupieniem wież
+                next = placeAffordable(sim, layout.placements, next);
+                sim.startWave();
+                result.spawned[wave] = waves.getWaveSize();
+            }
+            sim.tick();
+            result.ticks++;
+            if (gm.state != GameState.WAVE_IN_PROGRESS) {
+                result.leaked[wave] = livesAtStart - Math.max(gm.lives, 0);
+            }
+        }
+
+        result.won = gm.lives > 0 && gm.state == GameState.GAME_OVER;
+        result.deathWave = result.won ? 0 : gm.wave;
+        return result;
+    }
+
+    // Stawia kolejne wieże, dopóki starcza pieniędzy; zwraca indeks pierwszej niepostawionej
+    private static int placeAffordable(Simulation sim, List<Placement> placements, int next) {
+        GameManager gm = sim.getGameManager();
+        TowerFactoryManager factories = TowerFactoryManager.getInstance();
+        while (next < placements.size()) {
+            Placement p = placements.get(next);
+            if (gm.occupiedMap[p.col][p.row]) { next++; continue; }
+            if (gm.money < factories.getTowerCost(p.type)) break;
+            sim.placeTower(p.type, p.col, p.row);
+            next++;
+        }
+        return next;
+    }
+
+    // --- układy wież ---
+
+    // Dla każdego typu z TowerFactoryManager: układ z samych wież tego typu, plus układ mieszany.
+    // Pola wybierane zachłannie - najpierw te, z których wieża sięga najwięcej pól ścieżki.
+    static List<Layout> defaultLayouts(GameManager gm, TowerFactoryManager factories) {
+        List<String> types = new ArrayList<>(factories.getAllFactories().keySet());
+        Collections.sort(types);
+
+        List<Layout> layouts = new ArrayList<>();
+        for (String type : types) {
+            layouts.add(greedyLayout("tylko " + type, gm, factories, Collections.nCopies(TOWERS_PER_LAYOUT, type)));
+        }
+        List<String> mixed = new ArrayList<>();
+        for (int i = 0; i < TOWERS_PER_LAYOUT; i++) mixed.add(types.get(i % types.size()));
+        layouts.add(greedyLayout("mieszany", gm, factories, mixed));
+        return layouts;
+    }
+
+    private static Layout greedyLayout(String name, GameManager gm, TowerFactoryManager factories, List<String> types) {
+        boolean[][] path = pathTiles(gm);
+        boolean[][] taken = new boolean[gm.COLS][gm.ROWS];
+        List<Placement> placements = new ArrayList<>();
+
+        for (String type : types) {
+            int range = factories.getTowerRange(type);
+            int bestCol = -1, bestRow = -1, bestCover = 0;
+            for (int c = 0; c < gm.COLS; c++) {
+                for (int r = 0; r < gm.ROWS; r++) {
+                    if (path[c][r] || taken[c][r]) continue;
+                    int cover = pathCoverage(gm, path, c, r, range);
+                    if (cover > bestCover) { bestCover = cover; bestCol = c; bestRow = r; }
+                }
+            }
+            if (bestCol < 0) break;
+            taken[bestCol][bestRow] = true;
+            placements.add(new Placement(type, bestCol, bestRow));
+        }
+        return new Layout(name, placements);
+    }
+
+    // Po resecie zajęte są tylko pola ścieżki
+    private static boolean[][] pathTiles(GameManager gm) {
+        gm.resetGame();
+        boolean[][] path = new boolean[gm.COLS][];
+        for (int c = 0; c < gm.COLS; c++) path[c] = gm.occupiedMap[c].clone();
+        return path;
+    }
+
+    private static int pathCoverage(GameManager gm, boolean[][] path, int col, int row, int range) {
+        int cover = 0;
+        long rangeSq = (long) range * range;
+        for (int c = 0; c < gm.COLS; c++) {
+            for (int r = 0; r < gm.ROWS; r++) {
+                if (!path[c][r]) continue;
+                long dx = (long) (c - col) * gm.TILE_SIZE, dy = (long) (r - row) * gm.TILE_SIZE;
+                if (dx * dx + dy * dy <= rangeSq) cover++;
+            }
+        }
+        return cover;
+    }
+
+    // --- raport ---
+
+    static void report(Layout layout, GameResult[] results, double seconds, int workers) {
+        int games = results.length;
+        int wins = 0;
+        long ticks = 0;
+        int[] deaths = new int[WaveManager.LAST_WAVE + 1];
+        for (GameResult r : results) {
+            if (r.won) wins++;
+            else deaths[r.deathWave]++;
+            ticks += r.ticks;
+        }
+
+        System.out.println();
+        System.out.printf("=== %s (%d wież) ===%n", layout.name, layout.placements.size());
+        System.out.printf("Wygrane: %.1f%%   śr. ticków na grę: %d   %.1f gier/s/rdzeń%n",
+                100.0 * wins / games, ticks / games, games / seconds / workers);
+
+        System.out.printf("%5s %9s %8s %10s %10s %10s %10s%n",
+                "fala", "dotarło", "wrogów", "przeciek", "$ śr.", "$ min", "$ max");
+        for (int w = 1; w <= WaveManager.LAST_WAVE; w++) {
+            int reached = 0;
+            long spawned = 0, leaked = 0, moneySum = 0;
+            int moneyMin = Integer.MAX_VALUE, moneyMax = Integer.MIN_VALUE;
+            for (GameResult r : results) {
+                if (!r.reached[w]) continue;
+                reached++;
+                spawned += r.spawned[w];
+                leaked += r.leaked[w];
+                moneySum += r.moneyAtStart[w];
+                moneyMin = Math.min(moneyMin, r.moneyAtStart[w]);
+                moneyMax = Math.max(moneyMax, r.moneyAtStart[w]);
+            }
+            if (reached == 0) break;
+            System.out.printf("%5d %8.1f%% %8.1f %9.1f%% %10d %10d %10d%n",
+                    w, 100.0 * reached / games, (double) spawned / reached,
+                    spawned > 0 ? 100.0 * leaked / spawned : 0.0,
+                    moneySum / reached, moneyMin, moneyMax);
+        }
+
+        StringBuilder histogram = new StringBuilder("Fala śmierci:");
+        for (int w = 1; w <= WaveManager.LAST_WAVE; w++) {
+            if (deaths[w] > 0) histogram.append(String.format(" %d: %.1f%%", w, 100.0 * deaths[w] / games));
+        }
+        if (wins == games) histogram.append(" -");
+        System.out.println(histogram);
+    }
+}
@@ -0,0 +1,112 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Wiele gier naraz w jednym SessionHost, bez okna. Każdą sesję prowadzi prosty bot:
+// w fazie przygotowań stawia dwie wieże na pierwszych wolnych polach i startuje falę.
+// Bot czyta tylko klatki sesji (latestFrame, jedynym czytelnikiem jest wątek main),
+// a akcje wysyła przez submit - tak jak gracz przy prawdziwym serwerze.
+// Raport: ticki na sekundę każdej sesji, największe opóźnienie względem zegara, osiągnięta fala.
+//
+// Uruchomienie (po mvn package):
+//   java -Djava.awt.headless=true -cp game/target/tdefense-1.0-SNAPSHOT.jar:bench/target/tdefense-bench-1.0-SNAPSHOT.jar SessionHostDriver [sesji] [sekund] [wątki]
+public class SessionHostDriver {
+    private static final int DEFAULT_SESSIONS = 8;
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int TOWERS_PER_WAVE = 2;
+    private static final long POLL_MILLIS = 20;
+
+    // Stan bota jednej sesji - tylko z wątku main
+    static final class Bot {
+        final GameSession session;
+        final long openedNanos;
+        long polledNanos;
+        int requestedWave = 0;   // fala, dla której wysłano już komendę startu
+        long ticks;
+        long maxLagTicks;
+        int wave, lives;
+        GameState state;
+
+        Bot(GameSession session, long openedNanos) {
+            this.session = session;
+            this.openedNanos = openedNanos;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SESSIONS;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        EnemyCache.loadCache();
+        System.out.printf("Sesji: %d, czas: %d s, wątki: %d, cel: %d ticków/s%n",
+                sessionCount, seconds, threads, Simulation.TICKS_PER_SECOND);
+
+        SessionHost host = new SessionHost(threads);
+        List<Bot> bots = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) bots.add(new Bot(host.open(), System.nanoTime()));
+
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        try {
+            while (System.nanoTime() < end) {
+                for (Bot bot : bots) poll(bot);
+                Thread.sleep(POLL_MILLIS);
+            }
+            for (Bot bot : bots) poll(bot);
+        } finally {
+            host.shutdown();
+        }
+        report(bots);
+    }
+
+    private static void poll(Bot bot) {
+        FrameSnapshot frame = bot.session.latestFrame();
+        // klatka jest wielokrotnego użytku - potrzebne pola kopiowane od razu
+        bot.ticks = frame.tick;
+        bot.state = frame.state;
+        bot.wave = frame.wave;
+        bot.lives = frame.lives;
+
+        bot.polledNanos = System.nanoTime();
+        double elapsed = (bot.polledNanos - bot.openedNanos) / 1e9;
+        long lag = (long) (elapsed * Simulation.TICKS_PER_SECOND) - bot.ticks;
+        if (lag > bot.maxLagTicks) bot.maxLagTicks = lag;
+
+        if (frame.state == GameState.PREP_PHASE && frame.wave > bot.requestedWave) {
+            bot.requestedWave = frame.wave;
+            Simulation sim = bot.session.getSimulation();
+            bot.session.submit(() -> {
+                placeTowers(sim, TOWERS_PER_WAVE);
+                sim.startWave();
+            });
+        }
+    }
+
+    // Wykonywane jako komenda na wątku sesji
+    private static void placeTowers(Simulation sim, int count) {
+        GameManager gm = sim.getGameManager();
+        String[] types = {"ARCHER", "CANNON", "SNIPER", "LASER"};
+        int placed = 0;
+        for (int c = 0; c < gm.COLS && placed < count; c++) {
+            for (int r = 0; r < gm.ROWS && placed < count; r++) {
+                if (gm.occupiedMap[c][r]) continue;
+                if (sim.placeTower(types[gm.towers.size() % types.length], c, r)) placed++;
+            }
+        }
+    }
+
+    private static void report(List<Bot> bots) {
+        System.out.printf("%-6s %10s %12s %6s %6s  %s%n", "sesja", "ticki/s", "max opóźn.", "fala", "życia", "stan");
+        double total = 0;
+        long worstLag = 0;
+        for (Bot bot : bots) {
+            double seconds = (bot.polledNanos - bot.openedNanos) / 1e9;
+            double rate = bot.ticks / seconds;
+            total += rate;
+            worstLag = Math.max(worstLag, bot.maxLagTicks);
+            System.out.printf("%-6d %10.1f %12d %6d %6d  %s%n",
+                    bot.session.getId(), rate, bot.maxLagTicks, bot.wave, bot.lives, bot.state);
+        }
+        System.out.printf("Razem: %.1f ticków/s, średnio %.1f na sesję, największe opóźnienie: %d ticków (%.0f ms)%n",
+                total, total / bots.size(), worstLag, worstLag * 1000.0 / Simulation.TICKS_PER_SECOND);
+    }
+}
@@ -0,0 +1,171 @@
+import benchmarks.Workload;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Scenariusze benchmarków JMH (pakiet benchmarks). Leżą w pakiecie domyślnym, bo tylko stąd
+// widać klasy gry; każdy dostaje własną Simulation z nowym GameManagerem.
+public class SimulationWorkloads {
+    private static final long SEED = 1;
+
+    private SimulationWorkloads() {}
+
+    // Wołane refleksją z Workload.load - nazwa scenariusza to nazwa metody @Benchmark
+    public static Workload create(String name, int enemies, int towers) {
+        switch (name) {
+            case "towerTargetScan": return towerTargetScan(enemies, towers);
+            case "towerAimSerial": return towerAim(false, enemies, towers);
+            case "towerAimParallel": return towerAim(true, enemies, towers);
+            case "waveTick": return waveTick(enemies, towers);
+            case "enemyMovement": return enemyMovement(enemies);
+            case "projectileUpdate": return projectileUpdate(enemies);
+            case "notifyObservers": return notifyObservers();
+            case "markPathAsOccupied": return markPathAsOccupied();
+            default: throw new IllegalArgumentException("Nieznany scenariusz: " + name);
+        }
+    }
+
+    // Tower.update(): przebudowa siatki + szukanie celu dla każdej wieży (bez cooldownu)
+    private static Workload towerTargetScan(int enemyCount, int towerCount) {
+        GameManager gm = setup(new Simulation(new GameManager()), enemyCount, towerCount);
+        List<ITower> towers = new ArrayList<>();
+        for (ITower t : gm.towers) towers.add(t);
+
+        return bh -> {
+            gm.enemyGrid.rebuild(gm.enemyData);
+            for (int i = 0; i < towers.size(); i++) {
+                ITower t = towers.get(i);
+                bh.consume(gm.enemyGrid.findNearest(t.getX(), t.getY(), t.getRange()));
+            }
+        };
+    }
+
+    // Faza 1 TowerTargeting (wybór celów) - szeregowo albo na ForkJoinPool (od PARALLEL_THRESHOLD wież)
+    private static Workload towerAim(boolean parallel, int enemyCount, int towerCount) {
+        GameManager gm = setup(new Simulation(new GameManager()), enemyCount, towerCount);
+        TowerTargeting targeting = new TowerTargeting();
+        targeting.setParallel(parallel);
+        gm.enemyGrid.rebuild(gm.enemyData);
+
+        return bh -> bh.consume(targeting.aimAll(gm, 0));
+    }
+
+    // Pełny tick fali; zabici i ci, którzy doszli do bazy, są uzupełniani
+    private static Workload waveTick(int enemyCount, int towerCount) {
+        Simulation sim = new Simulation(new GameManager());
+        GameManager gm = setup(sim, enemyCount, towerCount);
+        gm.state = GameState.WAVE_IN_PROGRESS;
+
+        return new Workload() {
+            @Override
+            public void run(Blackhole bh) {
+                sim.tick();
+                while (gm.enemies.size() < enemyCount) gm.spawnEnemy("NORMAL", 2000);
+                bh.consume(gm.money);
+            }
+
+            @Override
+            public void beforeIteration() {
+                gm.lives = Integer.MAX_VALUE / 2;
+            }
+        };
+    }
+
+    // Enemy.update(): ruch wszystkich wrogów; kto dojdzie do końca, wraca na start
+    private static Workload enemyMovement(int enemyCount) {
+        GameManager gm = setup(new Simulation(new GameManager()), enemyCount, 0);
+        EnemyColumns data = gm.enemyData;
+        for (int s = 0; s < data.highWater(); s++) data.speed[s] = 2.0;
+
+        return bh -> {
+            data.moveAll(gm.pathTable);
+            for (int s = 0; s < data.highWater(); s++) {
+                if (data.finished[s]) { data.finished[s] = false; data.distance[s] = 0; data.pathIndex[s] = 0; }
+            }
+            bh.consume(data.x);
+        };
+    }
+
+    // Projectile.update(): tyle pocisków, ilu wrogów; trafione pociski są wystrzeliwane ponownie
+    private static Workload projectileUpdate(int projectileCount) {
+        GameManager gm = setup(new Simulation(new GameManager()), projectileCount, 0);
+        List<Projectile> projectiles = new ArrayList<>();
+        List<Enemy> targets = new ArrayList<>();
+        for (Enemy e : gm.enemies) {
+            targets.add(e);
+            projectiles.add(new Projectile(e.getX() + 60, e.getY() + 60, e, 1));
+        }
+
+        return bh -> {
+            for (int i = 0; i < projectiles.size(); i++) {
+                Projectile p = projectiles.get(i);
+                p.update();
+                if (!p.active) {
+                    Enemy e = targets.get(i);
+                    p.init(e.getX() + 60, e.getY() + 60, e.getColumns(), e.handle(), 1);
+                }
+            }
+            bh.consume(projectiles);
+        };
+    }
+
+    // GameManager.notifyObservers(typ, wartość) dla zestawu obserwatorów z Main
+    private static Workload notifyObservers() {
+        GameManager gm = setup(new Simulation(new GameManager()), 0, 0);
+        LoggerObserver logger = new LoggerObserver();
+        SoundObserver sound = new SoundObserver();
+        sound.setSoundEnabled(false);
+        GameObserver[] observers = {new StatisticsObserver(), sound, new AchievementObserver(), logger};
+        for (GameObserver o : observers) gm.addObserver(o);
+
+        return new Workload() {
+            @Override
+            public void run(Blackhole bh) {
+                gm.notifyObservers(GameEventType.ENEMY_KILLED, 10);
+                gm.notifyObservers(GameEventType.MONEY_CHANGED, 10);
+            }
+
+            @Override
+            public void beforeIteration() {
+                logger.clearLog();
+            }
+        };
+    }
+
+    private static Workload markPathAsOccupied() {
+        GameManager gm = setup(new Simulation(new GameManager()), 0, 0);
+        return bh -> {
+            gm.markPathAsOccupied();
+            bh.consume(gm.occupiedMap);
+        };
+    }
+
+    // --- przygotowanie stanu ---
+
+    private static GameManager setup(Simulation sim, int enemyCount, int towerCount) {
+        EnemyCache.loadCache();
+        GameManager gm = sim.getGameManager();
+        sim.startGame(SEED);
+        gm.lives = Integer.MAX_VALUE / 2;
+
+        String[] types = {"ARCHER", "CANNON", "SNIPER", "LASER"};
+        int placed = 0;
+        for (int c = 0; c < gm.COLS && placed < towerCount; c++) {
+            for (int r = 0; r < gm.ROWS && placed < towerCount; r++) {
+                if (sim.placeTower(types[placed % types.length], c, r)) placed++;
+            }
+        }
+
+        // wrogowie rozłożeni równo wzdłuż ścieżki, stoją w miejscu
+        for (int i = 0; i < enemyCount; i++) gm.spawnEnemy("TANK", 1_000_000_000);
+        EnemyColumns data = gm.enemyData;
+        for (int s = 0; s < data.highWater(); s++) {
+            data.speed[s] = 0;
+            data.distance[s] = gm.pathTable.totalLength * s / Math.max(1, enemyCount);
+            data.move(s, gm.pathTable);
+        }
+        gm.enemyGrid.rebuild(data);
+        return gm;
+    }
+}
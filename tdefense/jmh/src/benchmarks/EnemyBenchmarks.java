@@ -0,0 +1,38 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Ruch wrogów i pocisków - bez wież
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EnemyBenchmarks {
+    @Param({"50", "200", "1000"})
+    int enemies;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkParams params) {
+        workload = Workload.load(params.getBenchmark(), enemies, 0);
+    }
+
+    // EnemyColumns.moveAll - wrogowie, którzy doszli do końca, wracają na start
+    @Benchmark
+    public void enemyMovement(Blackhole bh) {
+        workload.run(bh);
+    }
+
+    // Projectile.update - tyle pocisków, ilu wrogów; trafione są wystrzeliwane ponownie
+    @Benchmark
+    public void projectileUpdate(Blackhole bh) {
+        workload.run(bh);
+    }
+}
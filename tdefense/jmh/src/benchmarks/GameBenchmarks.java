@@ -0,0 +1,39 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Operacje GameManagera niezależne od liczby encji
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GameBenchmarks {
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkParams params) {
+        workload = Workload.load(params.getBenchmark(), 0, 0);
+    }
+
+    @Setup(Level.Iteration)
+    public void beforeIteration() {
+        workload.beforeIteration();
+    }
+
+    // notifyObservers(typ, wartość) dla zestawu obserwatorów z Main
+    @Benchmark
+    public void notifyObservers(Blackhole bh) {
+        workload.run(bh);
+    }
+
+    @Benchmark
+    public void markPathAsOccupied(Blackhole bh) {
+        workload.run(bh);
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Wieże i pełny tick fali - dla każdej pary (wrogowie, wieże)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TowerBenchmarks {
+    @Param({"50", "200", "1000"})
+    int enemies;
+
+    @Param({"10", "50", "150"})
+    int towers;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkParams params) {
+        workload = Workload.load(params.getBenchmark(), enemies, towers);
+    }
+
+    @Setup(Level.Iteration)
+    public void beforeIteration() {
+        workload.beforeIteration();
+    }
+
+    // Przebudowa siatki + szukanie najbliższego celu dla każdej wieży (bez cooldownu)
+    @Benchmark
+    public void towerTargetScan(Blackhole bh) {
+        workload.run(bh);
+    }
+
+    // Faza wyboru celów TowerTargeting - szeregowo
+    @Benchmark
+    public void towerAimSerial(Blackhole bh) {
+        workload.run(bh);
+    }
+
+    // Faza wyboru celów TowerTargeting - na ForkJoinPool (od PARALLEL_THRESHOLD wież)
+    @Benchmark
+    public void towerAimParallel(Blackhole bh) {
+        workload.run(bh);
+    }
+
+    // Pełny Simulation.tick() w trakcie fali
+    @Benchmark
+    public void waveTick(Blackhole bh) {
+        workload.run(bh);
+    }
+}
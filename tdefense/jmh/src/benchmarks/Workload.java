@@ -0,0 +1,27 @@
+package benchmarks;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+// Jeden scenariusz benchmarku, przygotowany raz na próbę (trial).
+// Klasy gry leżą w pakiecie domyślnym, a JMH wymaga pakietu dla klas z @Benchmark -
+// scenariusze są więc pisane w pakiecie domyślnym (SimulationWorkloads), a stąd
+// widziane tylko przez ten interfejs. Refleksja jest użyta raz, przy tworzeniu scenariusza.
+public interface Workload {
+    // Jedna mierzona operacja; wyniki trafiają do Blackhole, żeby JIT ich nie usunął
+    void run(Blackhole bh);
+
+    // Przed każdą iteracją pomiaru (np. odnowienie żyć, czyszczenie logu)
+    default void beforeIteration() {}
+
+    // benchmark - pełna nazwa z BenchmarkParams.getBenchmark(), scenariusz to nazwa metody
+    static Workload load(String benchmark, int enemies, int towers) {
+        String name = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+        try {
+            return (Workload) Class.forName("SimulationWorkloads")
+                    .getMethod("create", String.class, int.class, int.class)
+                    .invoke(null, name, enemies, towers);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Nie udało się przygotować scenariusza " + name, e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 import java.awt.Color;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 abstract class TowerFactoryBase {
@@ -127,16 +128,17 @@ class LaserFactory extends TowerFactoryBase {
 }
 
 //zarzadanie
+// Fabryki i koszty są wspólne dla wszystkich gier (sesji) w JVM - stąd mapy współbieżne
 class TowerFactoryManager {
     private static TowerFactoryManager instance;
-    private Map<String, TowerFactoryBase> factories = new HashMap<>();
-    private Map<String, Integer> costs = new HashMap<>();
+    private Map<String, TowerFactoryBase> factories = new ConcurrentHashMap<>();
+    private Map<String, Integer> costs = new ConcurrentHashMap<>();
 
     private TowerFactoryManager() {
         registerDefaultFactories();
     }
 
-    public static TowerFactoryManager getInstance() {
+    public static synchronized TowerFactoryManager getInstance() {
         if (instance == null) {
             instance = new TowerFactoryManager();
         }
@@ -160,7 +162,7 @@ class TowerFactoryManager {
         if (factory == null) {
             throw new IllegalArgumentException("Nieznany typ wieży: " + type);
         }
-        return factory.createTower(x, y);
+        return withTypeId(factory.createTower(x, y), type);
     }
 
     public ITower createTowerWithValidation(String type, int x, int y, GameManager gm) {
@@ -168,7 +170,12 @@ class TowerFactoryManager {
         if (factory == null) {
             throw new IllegalArgumentException("Nieznany typ wieży: " + type);
         }
-        return factory.createTowerWithValidation(x, y, gm);
+        return withTypeId(factory.createTowerWithValidation(x, y, gm), type);
+    }
+
+    private static ITower withTypeId(ITower tower, String type) {
+        if (tower instanceof Tower) ((Tower) tower).typeId = type;
+        return tower;
     }
 
     public int getTowerCost(String type) {
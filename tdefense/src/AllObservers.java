@@ -1,9 +1,12 @@
-import java.time.LocalTime;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.LongSupplier;
 
 
 
@@ -17,35 +20,26 @@ class StatisticsObserver implements GameObserver {
     private int highestWaveReached = 0;
 
     @Override
-    public void onGameEvent(GameEvent event) {
-        switch (event.type) {
+    public void onGameEvent(GameEventType type, int value) {
+        switch (type) {
             case ENEMY_KILLED:
                 totalEnemiesKilled++;
-                if (event.data instanceof Integer) {
-                    totalMoneyEarned += (Integer) event.data;
-                }
+                totalMoneyEarned += value;
                 break;
 
             case TOWER_BUILT:
                 totalTowersBuilt++;
-                if (event.data instanceof Integer) {
-                    totalMoneySpent += (Integer) event.data;
-                }
+                totalMoneySpent += value;
                 break;
 
             case TOWER_UPGRADED:
-                if (event.data instanceof Integer) {
-                    totalMoneySpent += (Integer) event.data;
-                }
+                totalMoneySpent += value;
                 break;
 
             case WAVE_COMPLETED:
                 totalWavesCompleted++;
-                if (event.data instanceof Integer) {
-                    int wave = (Integer) event.data;
-                    if (wave > highestWaveReached) {
-                        highestWaveReached = wave;
-                    }
+                if (value > highestWaveReached) {
+                    highestWaveReached = value;
                 }
                 break;
 
@@ -55,6 +49,12 @@ class StatisticsObserver implements GameObserver {
         }
     }
 
+    @Override
+    public void onTickEvents(TickEventBatch batch) {
+        totalEnemiesKilled += batch.kills;
+        totalMoneyEarned += batch.killReward;
+    }
+
     private void resetStatistics() {
         totalEnemiesKilled = 0;
         totalTowersBuilt = 0;
@@ -88,10 +88,10 @@ class SoundObserver implements GameObserver {
     private boolean soundEnabled = true;
 
     @Override
-    public void onGameEvent(GameEvent event) {
+    public void onGameEvent(GameEventType type, int value) {
         if (!soundEnabled) return;
 
-        switch (event.type) {
+        switch (type) {
             case TOWER_BUILT:
                 playSound("build.wav");
                 break;
@@ -142,8 +142,8 @@ class AchievementObserver implements GameObserver {
     protected int towersBuiltCount = 0;
 
     @Override
-    public void onGameEvent(GameEvent event) {
-        switch (event.type) {
+    public void onGameEvent(GameEventType type, int value) {
+        switch (type) {
             case ENEMY_KILLED:
                 enemiesKilledCount++;
                 checkEnemyAchievements();
@@ -155,10 +155,7 @@ class AchievementObserver implements GameObserver {
                 break;
 
             case WAVE_COMPLETED:
-                if (event.data instanceof Integer) {
-                    int wave = (Integer) event.data;
-                    checkWaveAchievements(wave);
-                }
+                checkWaveAchievements(value);
                 break;
 
             case GAME_RESET:
@@ -168,6 +165,14 @@ class AchievementObserver implements GameObserver {
         }
     }
 
+    @Override
+    public void onTickEvents(TickEventBatch batch) {
+        if (batch.kills > 0) {
+            enemiesKilledCount += batch.kills;
+            checkEnemyAchievements();
+        }
+    }
+
     private void checkEnemyAchievements() {
         if (enemiesKilledCount >= 10 && unlock("first_blood")) {
             System.out.println("🏆 ACHIEVEMENT UNLOCKED: First Blood (10 wrogów)");
@@ -229,25 +234,71 @@ class AchievementObserver implements GameObserver {
 
 //logi
 class LoggerObserver implements GameObserver {
-    private List<String> eventLog = new ArrayList<>();
-    private DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
-    private boolean detailedLogging = true;
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // Pierścień ostatnich wpisów jako prymitywy; najstarsze są nadpisywane (pełna historia jest w dzienniku).
+    // Tekst powstaje dopiero przy wyświetlaniu i jest zapamiętywany w formatted do nadpisania slotu.
+    // Dopisywane z wątku szyny zdarzeń, czytane z EDT - dostęp pod blokadą obiektu.
+    private final long[] times;
+    private final int[] types;
+    private final int[] values;
+    private final String[] formatted;
+    private final int mask;
+    private long written = 0;   // liczba wszystkich dopisanych wpisów
+    private long clearedAt = 0;
+
+    private boolean detailedLogging = false;   // każde zdarzenie także na konsolę
+
+    public LoggerObserver() {
+        this(DEFAULT_CAPACITY);
+    }
 
+    public LoggerObserver(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        times = new long[size];
+        types = new int[size];
+        values = new int[size];
+        formatted = new String[size];
+        mask = size - 1;
+    }
+
+    // Rejestracja SYNC - czas z chwili zdarzenia
     @Override
-    public void onGameEvent(GameEvent event) {
-        String timestamp = LocalTime.now().format(timeFormatter);
-        String message = formatEventMessage(event);
+    public void onGameEvent(GameEventType type, int value) {
+        log(System.currentTimeMillis(), type, value);
+    }
 
-        String logEntry = String.format("[%s] %s", timestamp, message);
-        eventLog.add(logEntry);
+    // Rejestracja ASYNC - czas ostemplowany przez szynę przy publikacji
+    @Override
+    public void onGameEvent(GameEventType type, int value, long tick, long now) {
+        log(now, type, value);
+    }
 
+    private void log(long now, GameEventType type, int value) {
+        append(now, type, value);
         if (detailedLogging) {
-            System.out.println(logEntry);
+            System.out.println(formatEntry(now, type, value));
         }
     }
 
-    private String formatEventMessage(GameEvent event) {
-        switch (event.type) {
+    private synchronized void append(long time, GameEventType type, int value) {
+        int slot = (int) (written & mask);
+        times[slot] = time;
+        types[slot] = type.ordinal();
+        values[slot] = value;
+        formatted[slot] = null;
+        written++;
+    }
+
+    static String formatEntry(long wallMillis, GameEventType type, int value) {
+        return "[" + TIME_FORMAT.format(Instant.ofEpochMilli(wallMillis)) + "] " + formatEventMessage(type, value);
+    }
+
+    static String formatEventMessage(GameEventType type, int value) {
+        switch (type) {
             case MONEY_CHANGED:
                 return "Pieniądze zmienione";
 
@@ -255,19 +306,19 @@ class LoggerObserver implements GameObserver {
                 return "Utracono życie!";
 
             case WAVE_STARTED:
-                return "Rozpoczęto falę " + event.data;
+                return "Rozpoczęto falę " + value;
 
             case WAVE_COMPLETED:
-                return "Ukończono falę " + event.data;
+                return "Ukończono falę " + value;
 
             case ENEMY_KILLED:
-                return "Zabito wroga (nagroda: " + event.data + "$)";
+                return "Zabito wroga (nagroda: " + value + "$)";
 
             case TOWER_BUILT:
-                return "Zbudowano wieżę (koszt: " + event.data + "$)";
+                return "Zbudowano wieżę (koszt: " + value + "$)";
 
             case TOWER_UPGRADED:
-                return "Ulepszono wieżę (koszt: " + event.data + "$)";
+                return "Ulepszono wieżę (koszt: " + value + "$)";
 
             case GAME_OVER:
                 return "KONIEC GRY";
@@ -276,27 +327,120 @@ class LoggerObserver implements GameObserver {
                 return "Gra zresetowana";
 
             default:
-                return "Nieznane zdarzenie: " + event.type;
+                return "Nieznane zdarzenie: " + type;
         }
     }
 
     public void printLog() {
         System.out.println("\n=== DZIENNIK ZDARZEŃ ===");
-        for (String entry : eventLog) {
+        for (String entry : getEventLog()) {
             System.out.println(entry);
         }
     }
 
-    public void clearLog() {
-        eventLog.clear();
+    public synchronized void clearLog() {
+        clearedAt = written;
         System.out.println("[LOG] Dziennik wyczyszczony");
     }
 
-    public List<String> getEventLog() {
-        return new ArrayList<>(eventLog);
+    public synchronized int size() {
+        return (int) Math.min(written - clearedAt, times.length);
+    }
+
+    // Ostatnie wpisy (najstarszy pierwszy) do tablicy podanej przez wywołującego; zwraca ich liczbę.
+    // Bez kopiowania dziennika - panel logów może co klatkę używać tej samej tablicy.
+    public synchronized int getTail(String[] out) {
+        int n = Math.min(out.length, size());
+        long first = written - n;
+        for (int i = 0; i < n; i++) {
+            out[i] = entry(first + i);
+        }
+        return n;
+    }
+
+    public synchronized List<String> getEventLog() {
+        int n = size();
+        List<String> log = new ArrayList<>(n);
+        for (long seq = written - n; seq < written; seq++) {
+            log.add(entry(seq));
+        }
+        return log;
+    }
+
+    private String entry(long seq) {
+        int slot = (int) (seq & mask);
+        String text = formatted[slot];
+        if (text == null) {
+            text = formatEntry(times[slot], GameEventType.VALUES[types[slot]], values[slot]);
+            formatted[slot] = text;
+        }
+        return text;
     }
 
     public void setDetailedLogging(boolean enabled) {
         this.detailedLogging = enabled;
     }
-}
\ No newline at end of file
+}
+//dziennik na dysku
+// Binarny dziennik zdarzeń (EventJournal). Rejestrowany SYNC: rekordy powstają na wątku gry z dokładnym tickiem,
+// z pominięciem szyny - nic nie jest scalane przy pełnym buforze ani gubione przy zamykaniu gry.
+// Paczka ticku jest rozwijana w pełni: każde zabójstwo, każda zmiana pieniędzy i każde utracone życie osobno.
+class JournalObserver implements GameObserver {
+    private final LongSupplier tickSource;
+    private volatile EventJournal journal;
+
+    public JournalObserver(EventJournal journal, LongSupplier tickSource) {
+        this.journal = journal;
+        this.tickSource = tickSource;
+    }
+
+    @Override
+    public void onGameEvent(GameEventType type, int value) {
+        EventJournal j = journal;
+        if (j == null) return;
+        write(j, tickSource.getAsLong(), System.currentTimeMillis(), type, value);
+    }
+
+    @Override
+    public void onTickEvents(TickEventBatch batch) {
+        EventJournal j = journal;
+        if (j == null) return;
+        long tick = tickSource.getAsLong();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < batch.kills; i++) {
+            write(j, tick, now, GameEventType.ENEMY_KILLED, batch.getKillReward(i));
+        }
+        for (int i = 0; i < batch.getMoneyChanges(); i++) {
+            write(j, tick, now, GameEventType.MONEY_CHANGED, batch.getMoneyDelta(i));
+        }
+        // batch.lives to stan po ostatniej stracie - wcześniejsze stany odtwarzane wstecz
+        for (int i = 0; i < batch.livesLost; i++) {
+            write(j, tick, now, GameEventType.LIVES_CHANGED, batch.lives + batch.livesLost - 1 - i);
+        }
+    }
+
+    private void write(EventJournal j, long tick, long now, GameEventType type, int value) {
+        try {
+            j.append(tick, now, type, value);
+            // koniec fali i gry to naturalne punkty zrzutu na dysk
+            if (type == GameEventType.WAVE_COMPLETED || type == GameEventType.GAME_OVER) {
+                j.flush();
+            }
+        } catch (IOException e) {
+            System.out.println("[LOG] Błąd zapisu dziennika, zapis wyłączony: " + e.getMessage());
+            close();
+        }
+    }
+
+    // Zapis reszty bufora i zamknięcie pliku; późniejsze zdarzenia są pomijane
+    public void close() {
+        EventJournal j = journal;
+        journal = null;
+        if (j == null) return;
+        try {
+            j.close();
+        } catch (IOException e) {
+            System.out.println("[LOG] Błąd zamykania dziennika: " + e.getMessage());
+        }
+    }
+}
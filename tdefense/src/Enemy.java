@@ -3,93 +3,117 @@ import java.awt.Graphics2D;
 import java.awt.Point;
 
 class Enemy implements Prototype {
-    public double x, y;
-    public int hp, maxHp, reward, size;
+    public String typeId;
+    public int maxHp, reward, size;
     public double speed;
     public Color color;
-    public boolean alive = true, finished = false;
+
+    // Stan poza planszą (prototyp albo wróg już zdjęty z planszy).
+    // Na planszy stan trzymany jest w EnemyColumns, a obiekt jest tylko widokiem na slot.
+    private double x, y;
+    private int hp;
+    private boolean alive = true, finished = false;
     private int pathIndex = 0;
+    private double distance = 0;
+
+    private EnemyColumns columns;
+    private int slot = -1;
 
     public Enemy(String typeId, int hp, double speed, int reward, Color color, int size) {
+        this.typeId = typeId;
         this.hp = hp; this.maxHp = hp; this.speed = speed;
         this.reward = reward; this.color = color; this.size = size;
-        this.x = GameManager.getInstance().pathPoints[0].x;
-        this.y = GameManager.getInstance().pathPoints[0].y;
+        // pozycję startową nadaje dopiero attach() - prototyp nie należy do żadnej gry
     }
 
     @Override
     public Prototype clone() {
-        try { return (Enemy) super.clone(); }
+        try {
+            Enemy copy = (Enemy) super.clone();
+            copy.columns = null;
+            copy.slot = -1;
+            return copy;
+        }
         catch (CloneNotSupportedException e) { return null; }
     }
 
-    public void buffHealth(int amount) { this.maxHp += amount; this.hp = this.maxHp; }
+    // Ponowne użycie obiektu z puli - kopiuje cechy typu z prototypu
+    public void reset(Enemy prototype) {
+        this.typeId = prototype.typeId;
+        this.maxHp = prototype.maxHp; this.hp = prototype.maxHp; this.speed = prototype.speed;
+        this.reward = prototype.reward; this.color = prototype.color; this.size = prototype.size;
+        this.x = prototype.x; this.y = prototype.y;
+        this.alive = true; this.finished = false; this.pathIndex = 0; this.distance = 0;
+    }
+
+    public void buffHealth(int amount) {
+        this.maxHp += amount;
+        if (columns != null) { columns.maxHp[slot] = maxHp; columns.hp[slot] = maxHp; }
+        else this.hp = this.maxHp;
+    }
+
+    // Wejście na planszę - stan przenoszony do kolumn
+    public void attach(EnemyColumns columns, Point start) {
+        this.columns = columns;
+        this.slot = columns.allocate(this);
+        columns.x[slot] = start.x;
+        columns.y[slot] = start.y;
+        columns.prevX[slot] = start.x;
+        columns.prevY[slot] = start.y;
+        columns.speed[slot] = speed;
+        columns.hp[slot] = hp;
+        columns.maxHp[slot] = maxHp;
+        columns.pathIndex[slot] = 0;
+        columns.distance[slot] = 0;
+        columns.alive[slot] = alive;
+        columns.finished[slot] = false;
+    }
+
+    // Odtworzenie z zapisu gry: dane slotu są już w kolumnach
+    public void restoreAt(EnemyColumns columns, int slot) {
+        this.columns = columns;
+        this.slot = slot;
+        this.maxHp = columns.maxHp[slot];
+        columns.restoreSlot(slot, this);
+    }
 
-    public void update() {
-        if (!alive) return;
-        Point[] path = GameManager.getInstance().pathPoints;
-        if (pathIndex < path.length) {
-            Point target = path[pathIndex];
-            double dx = target.x - x, dy = target.y - y;
-            double dist = Math.sqrt(dx*dx + dy*dy);
-            if (dist < speed) pathIndex++;
-            else { x += (dx/dist)*speed; y += (dy/dist)*speed; }
-        } else finished = true;
+    // Zejście z planszy - ostatni stan kopiowany z powrotem do obiektu
+    public void detach() {
+        if (columns == null) return;
+        x = columns.x[slot];
+        y = columns.y[slot];
+        hp = columns.hp[slot];
+        pathIndex = columns.pathIndex[slot];
+        distance = columns.distance[slot];
+        alive = columns.alive[slot];
+        finished = columns.finished[slot];
+        columns.release(slot);
+        columns = null;
+        slot = -1;
     }
 
-    public void draw(Graphics2D g) {
-        GameManager gm = GameManager.getInstance();
-        boolean isWinter = gm.wave >= 11;
+    public long handle() { return columns != null ? columns.handle(slot) : EnemyColumns.NO_HANDLE; }
+    public EnemyColumns getColumns() { return columns; }
+    public int getSlot() { return slot; }
+
+    public double getX() { return columns != null ? columns.x[slot] : x; }
+    public double getY() { return columns != null ? columns.y[slot] : y; }
+    public int getHp() { return columns != null ? columns.hp[slot] : hp; }
+    public boolean isAlive() { return columns != null ? columns.alive[slot] : alive; }
+    public boolean isFinished() { return columns != null ? columns.finished[slot] : finished; }
+    // Dystans przebyty wzdłuż ścieżki - im większy, tym bliżej bazy
+    public double getProgress() { return columns != null ? columns.distance[slot] : distance; }
 
-        if (isWinter) {
-            // mapa 2
-            if (color.equals(new Color(135, 206, 250))) {
-                int[] xPoints = {(int)x, (int)x + size, (int)x, (int)x - size};
-                int[] yPoints = {(int)y - size, (int)y, (int)y + size, (int)y};
-                g.setColor(color);
-                g.fillPolygon(xPoints, yPoints, 4);
-                g.setColor(Color.WHITE);
-                g.drawPolygon(xPoints, yPoints, 4);
-            } else if (color.equals(new Color(70, 130, 180))) {
-                int[] xPoints = new int[6];
-                int[] yPoints = new int[6];
-                for (int i = 0; i < 6; i++) {
-                    double angle = Math.PI / 3 * i;
-                    xPoints[i] = (int)(x + size * Math.cos(angle));
-                    yPoints[i] = (int)(y + size * Math.sin(angle));
-                }
-                g.setColor(color);
-                g.fillPolygon(xPoints, yPoints, 6);
-                g.setColor(new Color(200, 220, 255));
-                g.drawPolygon(xPoints, yPoints, 6);
-            } else if (color.equals(new Color(176, 224, 230))) {
-                int[] xPoints = new int[8];
-                int[] yPoints = new int[8];
-                for (int i = 0; i < 8; i++) {
-                    double angle = Math.PI / 4 * i;
-                    int r = (i % 2 == 0) ? size : size / 2;
-                    xPoints[i] = (int)(x + r * Math.cos(angle));
-                    yPoints[i] = (int)(y + r * Math.sin(angle));
-                }
-                g.setColor(color);
-                g.fillPolygon(xPoints, yPoints, 8);
-                g.setColor(Color.WHITE);
-                g.drawPolygon(xPoints, yPoints, 8);
-            } else {
-                //
-                g.setColor(color);
-                g.fillOval((int)x - size, (int)y - size, size*2, size*2);
-            }
+    public void damage(int amount) {
+        if (columns != null) {
+            columns.damage(slot, amount);
         } else {
-            // mapa 1 enemy
-            g.setColor(color);
-            g.fillOval((int)x - size, (int)y - size, size*2, size*2);
+            hp -= amount;
+            if (hp <= 0) alive = false;
         }
+    }
 
-        // Pasek zdrowia
-        g.setColor(Color.RED);
-        g.fillRect((int)x - 10, (int)y - size - 8, 20, 4);
-        g.setColor(Color.GREEN);
-        g.fillRect((int)x - 10, (int)y - size - 8, (int)(20 * ((double)hp/maxHp)), 4);
+    public void update(PathTable path) {
+        if (columns != null) columns.move(slot, path);
     }
 }
\ No newline at end of file
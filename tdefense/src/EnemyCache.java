@@ -1,11 +1,16 @@
 import java.awt.Color;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+// Prototypy są wspólne dla wszystkich gier w JVM i po załadowaniu tylko czytane -
+// mapa budowana jest z boku i publikowana w całości przez pole volatile.
 class EnemyCache {
-    private static Map<String, Enemy> cache = new HashMap<>();
+    private static volatile Map<String, Enemy> cache = Collections.emptyMap();
 
     public static void loadCache() {
+        Map<String, Enemy> cache = new HashMap<>();
         //PIERWSZA MAPA
         cache.put("NORMAL", new Enemy("NORMAL", 80, 2.0, 10, new Color(220, 20, 60), 12));
         cache.put("FAST", new Enemy("FAST", 50, 3.5, 8, new Color(50, 205, 50), 10));
@@ -15,13 +20,23 @@ class EnemyCache {
         cache.put("ICE", new Enemy("ICE", 120, 1.8, 15, new Color(135, 206, 250), 13));
         cache.put("FROST_GIANT", new Enemy("FROST_GIANT", 500, 0.7, 35, new Color(70, 130, 180), 20));
         cache.put("BLIZZARD", new Enemy("BLIZZARD", 60, 4.2, 12, new Color(176, 224, 230), 11));
+        EnemyCache.cache = Collections.unmodifiableMap(cache);
+    }
+
+    public static Collection<Enemy> getPrototypes() {
+        return cache.values();
     }
 
     public static Enemy getEnemy(String type) {
+        return (Enemy) getPrototype(type).clone();
+    }
+
+    // Prototyp bez klonowania - do resetowania obiektów z puli
+    public static Enemy getPrototype(String type) {
         Enemy prototype = cache.get(type);
         if (prototype == null) {
             prototype = cache.get("NORMAL");
         }
-        return (Enemy) prototype.clone();
+        return prototype;
     }
 }
\ No newline at end of file
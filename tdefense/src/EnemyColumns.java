@@ -0,0 +1,160 @@
+import java.util.Arrays;
+
+// Stan wrogów na planszy w równoległych tablicach prymitywów (structure of arrays).
+// Ruch i sprawdzanie zasięgu to liniowe przejścia po tablicach, Enemy jest tylko widokiem na slot.
+// Uchwyt (handle) = generacja slotu << 32 | slot - po zwolnieniu slotu stare uchwyty przestają pasować.
+class EnemyColumns {
+    public static final long NO_HANDLE = -1L;
+
+    public double[] x, y, speed;
+    public double[] prevX, prevY;    // pozycja z poprzedniego ticku - do interpolacji przy rysowaniu
+    public double[] distance;        // dystans przebyty wzdłuż ścieżki
+    public int[] hp, maxHp, pathIndex;  // pathIndex = bieżący odcinek ścieżki
+    public boolean[] alive, finished;
+
+    private boolean[] used;
+    private int[] generation;
+    private Enemy[] views;
+    private int highWater = 0;     // sloty >= highWater nigdy nie były używane
+    private int[] freeSlots;
+    private int freeCount = 0;
+    private int count = 0;
+
+    public EnemyColumns(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        speed = new double[capacity];
+        distance = new double[capacity];
+        hp = new int[capacity];
+        maxHp = new int[capacity];
+        pathIndex = new int[capacity];
+        alive = new boolean[capacity];
+        finished = new boolean[capacity];
+        used = new boolean[capacity];
+        generation = new int[capacity];
+        views = new Enemy[capacity];
+        freeSlots = new int[capacity];
+    }
+
+    public int allocate(Enemy view) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWater == used.length) grow(highWater * 2);
+            slot = highWater++;
+        }
+        used[slot] = true;
+        views[slot] = view;
+        count++;
+        return slot;
+    }
+
+    public void release(int slot) {
+        if (!used[slot]) return;
+        used[slot] = false;
+        generation[slot]++;
+        views[slot] = null;
+        freeSlots[freeCount++] = slot;
+        count--;
+    }
+
+    public void clear() {
+        for (int i = 0; i < highWater; i++) {
+            if (used[i]) generation[i]++;
+        }
+        Arrays.fill(used, 0, highWater, false);
+        Arrays.fill(views, 0, highWater, null);
+        highWater = 0;
+        freeCount = 0;
+        count = 0;
+    }
+
+    // --- zapis i odtworzenie stanu (SaveGame) ---
+    // Sloty, generacje i kolejka wolnych slotów wracają dokładnie takie same,
+    // więc uchwyty pocisków i kolejność przeglądania wrogów się nie zmieniają.
+
+    public int generation(int slot) { return generation[slot]; }
+    public int freeCount() { return freeCount; }
+    public int freeSlot(int i) { return freeSlots[i]; }
+
+    // Czyści kolumny i ustawia granicę oraz wolne sloty z zapisu; zajęte sloty wypełnia potem restoreSlot
+    public void restoreLayout(int highWater, int[] generations, int[] free, int freeCount) {
+        clear();
+        if (highWater > used.length) grow(Math.max(highWater, used.length * 2));
+        this.highWater = highWater;
+        System.arraycopy(generations, 0, generation, 0, highWater);
+        System.arraycopy(free, 0, freeSlots, 0, freeCount);
+        this.freeCount = freeCount;
+    }
+
+    public void restoreSlot(int slot, Enemy view) {
+        used[slot] = true;
+        views[slot] = view;
+        count++;
+    }
+
+    public int size() { return count; }
+    public int highWater() { return highWater; }
+    public boolean isUsed(int slot) { return used[slot]; }
+    public Enemy view(int slot) { return views[slot]; }
+
+    public long handle(int slot) {
+        return ((long) generation[slot] << 32) | slot;
+    }
+
+    // Slot wskazywany przez uchwyt albo -1, jeśli wróg zniknął, a slot mógł trafić do kogoś innego
+    public int resolve(long handle) {
+        int slot = (int) handle;
+        if (slot < 0 || slot >= highWater || !used[slot]) return -1;
+        return generation[slot] == (int) (handle >>> 32) ? slot : -1;
+    }
+
+    public void damage(int slot, int amount) {
+        hp[slot] -= amount;
+        if (hp[slot] <= 0) alive[slot] = false;
+    }
+
+    // Ruch wszystkich wrogów jednym przebiegiem po tablicach
+    public void moveAll(PathTable path) {
+        for (int i = 0; i < highWater; i++) {
+            if (used[i]) move(i, path);
+        }
+    }
+
+    public void move(int i, PathTable path) {
+        prevX[i] = x[i];
+        prevY[i] = y[i];
+        if (!alive[i]) return;
+        double d = distance[i] + speed[i];
+        if (d >= path.totalLength) {
+            d = path.totalLength;
+            finished[i] = true;
+        }
+        int segment = path.segmentAt(pathIndex[i], d);
+        distance[i] = d;
+        pathIndex[i] = segment;
+        x[i] = path.xAt(segment, d);
+        y[i] = path.yAt(segment, d);
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        distance = Arrays.copyOf(distance, capacity);
+        hp = Arrays.copyOf(hp, capacity);
+        maxHp = Arrays.copyOf(maxHp, capacity);
+        pathIndex = Arrays.copyOf(pathIndex, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        finished = Arrays.copyOf(finished, capacity);
+        used = Arrays.copyOf(used, capacity);
+        generation = Arrays.copyOf(generation, capacity);
+        views = Arrays.copyOf(views, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Kontener encji gry (wrogowie, wieże, pociski).
+// Dodawanie O(1), usuwanie przez zamianę z ostatnim elementem (swap-remove) odroczone do końca ticku.
+// Używany tylko przez wątek gry - renderer dostaje FrameSnapshot.
+class EntityStore<T> implements Iterable<T> {
+    private Object[] items = new Object[16];
+    private int size = 0;
+
+    private int[] pendingRemovals = new int[16];
+    private int pendingCount = 0;
+
+    public void add(T item) {
+        if (size == items.length) items = Arrays.copyOf(items, size * 2);
+        items[size++] = item;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException("Indeks " + index + ", rozmiar " + size);
+        return (T) items[index];
+    }
+
+    public void set(int index, T item) {
+        if (index >= size) throw new IndexOutOfBoundsException("Indeks " + index + ", rozmiar " + size);
+        items[index] = item;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    // Oznacza element do usunięcia - indeksy pozostają stabilne do flushRemovals()
+    public void removeLater(int index) {
+        if (pendingCount == pendingRemovals.length) {
+            pendingRemovals = Arrays.copyOf(pendingRemovals, pendingCount * 2);
+        }
+        pendingRemovals[pendingCount++] = index;
+    }
+
+    // Koniec ticku: usuwanie od najwyższego indeksu, żeby przenoszony ostatni element był już sprawdzony
+    public void flushRemovals() {
+        if (pendingCount == 0) return;
+        Arrays.sort(pendingRemovals, 0, pendingCount);
+        int last = -1;
+        for (int i = pendingCount - 1; i >= 0; i--) {
+            int index = pendingRemovals[i];
+            if (index == last) continue;
+            last = index;
+            size--;
+            items[index] = items[size];
+            items[size] = null;
+        }
+        pendingCount = 0;
+    }
+
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        pendingCount = 0;
+    }
+
+    // Iteracja po żywych danych
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() { return index < size; }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (index >= size) throw new NoSuchElementException();
+                return (T) items[index++];
+            }
+        };
+    }
+}
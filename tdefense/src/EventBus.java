@@ -0,0 +1,221 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+enum DeliveryMode { SYNC, ASYNC }
+
+// Co zrobić, gdy bufor jest pełny
+enum BackPressure {
+    DROP,       // porzuć nowe zdarzenie
+    BLOCK,      // czekaj, aż konsument zrobi miejsce
+    COALESCE    // scal z najnowszym zdarzeniem tego samego typu, jeśli się da; inaczej czekaj
+}
+
+// Asynchroniczna szyna zdarzeń: stały bufor cykliczny między wątkiem gry a wątkiem konsumenta.
+// Konsument odbiera zdarzenia paczkami i przekazuje je obserwatorom zarejestrowanym jako ASYNC,
+// więc wolni obserwatorzy (konsola, pliki) nie blokują ticku.
+// Bufor trzyma same prymitywy (ordinal typu + wartość), publikacja niczego nie alokuje.
+// Tick i czas ścienny są stemplowane przy publikacji (wątek gry), nie przy odbiorze.
+// Wątki budzone są tylko wtedy, gdy ktoś czeka: konsument na pusty bufor, wydawca na pełny, flush na dostarczenie.
+class EventBus {
+    private static final long SHUTDOWN_WAIT_MILLIS = 1000;
+
+    private final int[] ringTypes;
+    private final int[] ringValues;
+    private final long[] ringTicks;
+    private final long[] ringTimes;
+    private final int mask;
+    private long head = 0;   // następne do odczytu
+    private long tail = 0;   // następne do zapisu
+    private long delivered = 0;
+    private volatile BackPressure backPressure;
+
+    private final List<GameObserver> observers = new CopyOnWriteArrayList<>();
+    private final int[] batchTypes;
+    private final int[] batchValues;
+    private final long[] batchTicks;
+    private final long[] batchTimes;
+    private volatile LongSupplier tickSource = () -> 0;
+    private Thread consumer;
+    private volatile boolean running = false;
+    private boolean closed = false;          // po shutdown() nowe zdarzenia są pomijane
+    private boolean consumerWaiting = false;
+    private boolean consumerDone = false;
+    private int waiters = 0;                 // wydawcy czekający na miejsce i wątki w flush()
+    private long dropped = 0;
+
+    public EventBus(int capacity, BackPressure backPressure) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ringTypes = new int[size];
+        this.ringValues = new int[size];
+        this.ringTicks = new long[size];
+        this.ringTimes = new long[size];
+        this.mask = size - 1;
+        this.batchTypes = new int[size];
+        this.batchValues = new int[size];
+        this.batchTicks = new long[size];
+        this.batchTimes = new long[size];
+        this.backPressure = backPressure;
+    }
+
+    public void setBackPressure(BackPressure backPressure) { this.backPressure = backPressure; }
+    public BackPressure getBackPressure() { return backPressure; }
+    public boolean hasObservers() { return !observers.isEmpty(); }
+    public synchronized long getDroppedCount() { return dropped; }
+    public void setTickSource(LongSupplier tickSource) { this.tickSource = tickSource; }
+
+    public void addObserver(GameObserver o) {
+        observers.add(o);
+        start();
+    }
+
+    public void removeObserver(GameObserver o) { observers.remove(o); }
+
+    public void publish(GameEvent event) {
+        publish(event.type, event.value);
+    }
+
+    public synchronized void publish(GameEventType type, int value) {
+        if (closed) return;
+        long tick = tickSource.getAsLong();
+        long now = System.currentTimeMillis();
+        while (tail - head == ringTypes.length) {
+            BackPressure policy = backPressure;
+            if (policy == BackPressure.DROP) {
+                dropped++;
+                return;
+            }
+            if (policy == BackPressure.COALESCE && coalesce(type, value, tick, now)) {
+                return;
+            }
+            waiters++;
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped++;
+                return;
+            } finally {
+                waiters--;
+            }
+            if (closed) return;
+        }
+        int index = (int) (tail & mask);
+        ringTypes[index] = type.ordinal();
+        ringValues[index] = value;
+        ringTicks[index] = tick;
+        ringTimes[index] = now;
+        tail++;
+        if (consumerWaiting) notifyAll();
+    }
+
+    // Tylko zmiany pieniędzy da się bezpiecznie zsumować; życia niosą stan, więc wygrywa nowsze
+    // Scalone zdarzenie dostaje stempel nowszego
+    private boolean coalesce(GameEventType type, int value, long tick, long now) {
+        int last = (int) ((tail - 1) & mask);
+        if (ringTypes[last] != type.ordinal()) return false;
+
+        if (type == GameEventType.MONEY_CHANGED) {
+            ringValues[last] += value;
+        } else if (type == GameEventType.LIVES_CHANGED) {
+            ringValues[last] = value;
+        } else {
+            return false;
+        }
+        ringTicks[last] = tick;
+        ringTimes[last] = now;
+        return true;
+    }
+
+    // Czeka, aż konsument rozda wszystko, co zostało opublikowane do tej chwili
+    public synchronized void flush() throws InterruptedException {
+        long target = tail;
+        waiters++;
+        try {
+            while (consumer != null && !consumerDone && delivered < target) wait();
+        } finally {
+            waiters--;
+        }
+    }
+
+    // Konsument rozdaje jeszcze to, co już jest w buforze, i kończy pracę; czekamy na to najwyżej SHUTDOWN_WAIT_MILLIS
+    public void shutdown() {
+        Thread t;
+        synchronized (this) {
+            closed = true;
+            running = false;
+            notifyAll();
+            t = consumer;
+        }
+        if (t == null || t == Thread.currentThread()) return;
+        try {
+            t.join(SHUTDOWN_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void start() {
+        if (running || closed) return;
+        running = true;
+        consumer = new Thread(this::drainLoop, "game-events");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    private void drainLoop() {
+        try {
+            drain();
+        } finally {
+            synchronized (this) {
+                consumerDone = true;
+                notifyAll();
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            int count;
+            synchronized (this) {
+                consumerWaiting = true;
+                try {
+                    while (running && head == tail) wait();
+                } catch (InterruptedException e) {
+                    return;
+                } finally {
+                    consumerWaiting = false;
+                }
+                // po shutdown() bufor jest opróżniany do końca
+                if (head == tail) return;
+
+                count = (int) (tail - head);
+                for (int i = 0; i < count; i++) {
+                    int index = (int) ((head + i) & mask);
+                    batchTypes[i] = ringTypes[index];
+                    batchValues[i] = ringValues[index];
+                    batchTicks[i] = ringTicks[index];
+                    batchTimes[i] = ringTimes[index];
+                }
+                head += count;
+                if (waiters > 0) notifyAll();
+            }
+
+            for (int i = 0; i < count; i++) {
+                GameEventType type = GameEventType.VALUES[batchTypes[i]];
+                for (GameObserver o : observers) {
+                    try {
+                        o.onGameEvent(type, batchValues[i], batchTicks[i], batchTimes[i]);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+
+            synchronized (this) {
+                delivered += count;
+                if (waiters > 0) notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Binarny dziennik zdarzeń dopisywany na koniec pliku (append-only).
+// Nagłówek: magic, wersja, czas startu (epoch ms). Rekord: tick, ms od startu, typ (ordinal), wartość.
+// Zapis idzie przez bufor i FileChannel - na dysk trafia pełny bufor albo jawny flush().
+// Tekst powstaje dopiero przy odczycie (JournalDump, panel logów).
+class EventJournal implements Closeable {
+    static final int MAGIC = 0x54444A31;   // "TDJ1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+
+    // Odbiorca rekordów przy odczycie dziennika
+    interface RecordSink {
+        void record(long wallMillis, int tick, GameEventType type, int value);
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_BYTES * 1024);
+    private final long startMillis;
+
+    private EventJournal(FileChannel channel, long startMillis) {
+        this.channel = channel;
+        this.startMillis = startMillis;
+    }
+
+    public static EventJournal create(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        EventJournal journal = new EventJournal(channel, System.currentTimeMillis());
+        journal.buffer.putInt(MAGIC).putInt(VERSION).putLong(journal.startMillis);
+        journal.flush();
+        return journal;
+    }
+
+    public long getStartMillis() { return startMillis; }
+
+    // Po close() rekordy są pomijane - zamknięcie przy wyjściu może wyprzedzić ostatnie zdarzenia z wątku gry
+    public synchronized void append(long tick, long wallMillis, GameEventType type, int value) throws IOException {
+        if (!channel.isOpen()) return;
+        if (buffer.remaining() < RECORD_BYTES) writeBuffer();
+        buffer.putInt((int) tick)
+              .putInt((int) (wallMillis - startMillis))
+              .putInt(type.ordinal())
+              .putInt(value);
+    }
+
+    public synchronized void flush() throws IOException {
+        if (!channel.isOpen()) return;
+        writeBuffer();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) return;
+        writeBuffer();
+        channel.close();
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    // Odczyt całego pliku; ucięty ostatni rekord (np. po awarii) jest pomijany
+    public static void read(Path file, RecordSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = ByteBuffer.allocate(RECORD_BYTES * 1024);
+            readFully(channel, in, HEADER_BYTES);
+            if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+                throw new IOException("To nie jest dziennik zdarzeń: " + file);
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IOException("Nieobsługiwana wersja dziennika: " + version);
+            }
+            long start = in.getLong();
+
+            GameEventType[] types = GameEventType.VALUES;
+            while (true) {
+                in.compact();
+                boolean eof = channel.read(in) < 0;
+                in.flip();
+                while (in.remaining() >= RECORD_BYTES) {
+                    int tick = in.getInt();
+                    int elapsed = in.getInt();
+                    int type = in.getInt();
+                    int value = in.getInt();
+                    if (type < 0 || type >= types.length) {
+                        throw new IOException("Uszkodzony rekord dziennika (typ " + type + ")");
+                    }
+                    sink.record(start + elapsed, tick, types[type], value);
+                }
+                if (eof) return;
+            }
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer in, int bytes) throws IOException {
+        in.clear().limit(bytes);
+        while (in.hasRemaining() && channel.read(in) >= 0) { }
+        in.flip();
+    }
+}
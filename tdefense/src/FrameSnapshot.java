@@ -0,0 +1,196 @@
+import java.awt.Color;
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stan gry potrzebny do narysowania jednej klatki, zbierany na końcu ticku przez wątek gry.
+// Po publikacji (FrameSnapshotBuffer.publish) nikt go nie zmienia, dopóki czytelnik go trzyma,
+// więc renderer czyta tylko prymitywy z migawki - bez dostępu do żywych encji.
+class FrameSnapshot {
+    public long tick;
+    public GameState state;
+    public int money, lives, wave;
+    public long visualSeed;   // ziarno efektów wizualnych gry (GameManager.getVisualSeed)
+    public Point[] pathPoints;
+    public boolean[] occupied;   // kolumna * ROWS + wiersz
+
+    // wrogowie - pozycja z poprzedniego i bieżącego ticku (do interpolacji)
+    public int enemyCount;
+    public float[] enemyX = new float[64], enemyY = new float[64];
+    public float[] enemyPrevX = new float[64], enemyPrevY = new float[64];
+    public float[] enemyHealth = new float[64];   // hp / maxHp
+    public int[] enemySize = new int[64];
+    public String[] enemyType = new String[64];
+    public Color[] enemyColor = new Color[64];
+
+    // wieże - kopia pól do rysowania (ulepszenia zmieniają wspólne TowerStats, więc bez żywych referencji);
+    // odznaki ulepszeń od najstarszego, towerBadgeCount[i] kolejnych wpisów od towerBadgeStart[i]
+    public int towerCount;
+    public int[] towerX = new int[16], towerY = new int[16], towerRange = new int[16];
+    public Color[] towerColor = new Color[16];
+    public int[] towerBadgeStart = new int[16], towerBadgeCount = new int[16];
+    public int[] towerBadges = new int[16];
+
+    // stan interfejsu z wątku gry (Simulation.setFrameOverlay)
+    public int upgradeMenuTower = -1;   // -1 - menu ulepszeń zamknięte
+    public int upgradeMenuX, upgradeMenuY;
+    public String selectedTowerType;
+    public int selectedTowerRange;
+
+    public int projectileCount;
+    public float[] projectileX = new float[64], projectileY = new float[64];
+    public float[] projectilePrevX = new float[64], projectilePrevY = new float[64];
+
+    public void capture(GameManager gm, long tick) {
+        this.tick = tick;
+        state = gm.state;
+        money = gm.money;
+        lives = gm.lives;
+        wave = gm.wave;
+        visualSeed = gm.getVisualSeed();
+        pathPoints = gm.pathPoints;
+
+        if (occupied == null) occupied = new boolean[gm.COLS * gm.ROWS];
+        for (int c = 0; c < gm.COLS; c++) {
+            System.arraycopy(gm.occupiedMap[c], 0, occupied, c * gm.ROWS, gm.ROWS);
+        }
+
+        EntityStore<Enemy> enemies = gm.enemies;
+        EnemyColumns data = gm.enemyData;
+        ensureEnemies(enemies.size());
+        int n = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy e = enemies.get(i);
+            EnemyColumns columns = e.getColumns();
+            if (columns != data) continue;
+            int s = e.getSlot();
+            enemyX[n] = (float) data.x[s];
+            enemyY[n] = (float) data.y[s];
+            enemyPrevX[n] = (float) data.prevX[s];
+            enemyPrevY[n] = (float) data.prevY[s];
+            enemyHealth[n] = (float) data.hp[s] / data.maxHp[s];
+            enemySize[n] = e.size;
+            enemyType[n] = e.typeId;
+            enemyColor[n] = e.color;
+            n++;
+        }
+        if (n < enemyCount) {
+            Arrays.fill(enemyType, n, enemyCount, null);
+            Arrays.fill(enemyColor, n, enemyCount, null);
+        }
+        enemyCount = n;
+
+        EntityStore<ITower> towers = gm.towers;
+        ensureTowers(towers.size());
+        int badges = 0;
+        for (int i = 0; i < towers.size(); i++) {
+            ITower t = towers.get(i);
+            Tower core = (Tower) TowerDecorator.unwrap(t);
+            towerX[i] = t.getX();
+            towerY[i] = t.getY();
+            towerRange[i] = t.getRange();
+            towerColor[i] = core.color;
+
+            int upgrades = core.getStats().getUpgradeCount();
+            if (towerBadges.length < badges + upgrades) {
+                towerBadges = Arrays.copyOf(towerBadges, (badges + upgrades) * 2);
+            }
+            towerBadgeStart[i] = badges;
+            towerBadgeCount[i] = upgrades;
+            // łańcuch dekoratorów idzie od najnowszego ulepszenia
+            int pos = badges + upgrades;
+            for (ITower d = t; d instanceof TowerDecorator; d = ((TowerDecorator) d).getWrappedTower()) {
+                towerBadges[--pos] = badgeOf(((TowerDecorator) d).getUpgradeType());
+            }
+            badges += upgrades;
+        }
+        if (towers.size() < towerCount) Arrays.fill(towerColor, towers.size(), towerCount, null);
+        towerCount = towers.size();
+
+        EntityStore<Projectile> projectiles = gm.projectiles;
+        ensureProjectiles(projectiles.size());
+        for (int i = 0; i < projectiles.size(); i++) {
+            Projectile p = projectiles.get(i);
+            projectileX[i] = (float) p.x;
+            projectileY[i] = (float) p.y;
+            projectilePrevX[i] = (float) p.getPrevX();
+            projectilePrevY[i] = (float) p.getPrevY();
+        }
+        projectileCount = projectiles.size();
+    }
+
+    public boolean isOccupied(int col, int row, int rows) {
+        return occupied != null && occupied[col * rows + row];
+    }
+
+    private void ensureEnemies(int n) {
+        if (enemyX.length >= n) return;
+        int size = n * 2;
+        enemyX = Arrays.copyOf(enemyX, size);
+        enemyY = Arrays.copyOf(enemyY, size);
+        enemyPrevX = Arrays.copyOf(enemyPrevX, size);
+        enemyPrevY = Arrays.copyOf(enemyPrevY, size);
+        enemyHealth = Arrays.copyOf(enemyHealth, size);
+        enemySize = Arrays.copyOf(enemySize, size);
+        enemyType = Arrays.copyOf(enemyType, size);
+        enemyColor = Arrays.copyOf(enemyColor, size);
+    }
+
+    private static int badgeOf(int upgradeType) {
+        switch (upgradeType) {
+            case TowerStats.UPGRADE_RANGE: return SpriteAtlas.BADGE_RANGE;
+            case TowerStats.UPGRADE_FIRE_RATE: return SpriteAtlas.BADGE_FIRE_RATE;
+            default: return SpriteAtlas.BADGE_DAMAGE;
+        }
+    }
+
+    private void ensureTowers(int n) {
+        if (towerX.length >= n) return;
+        int size = n * 2;
+        towerX = Arrays.copyOf(towerX, size);
+        towerY = Arrays.copyOf(towerY, size);
+        towerRange = Arrays.copyOf(towerRange, size);
+        towerColor = Arrays.copyOf(towerColor, size);
+        towerBadgeStart = Arrays.copyOf(towerBadgeStart, size);
+        towerBadgeCount = Arrays.copyOf(towerBadgeCount, size);
+    }
+
+    private void ensureProjectiles(int n) {
+        if (projectileX.length >= n) return;
+        int size = n * 2;
+        projectileX = Arrays.copyOf(projectileX, size);
+        projectileY = Arrays.copyOf(projectileY, size);
+        projectilePrevX = Arrays.copyOf(projectilePrevX, size);
+        projectilePrevY = Arrays.copyOf(projectilePrevY, size);
+    }
+}
+
+// Potrójny bufor migawek: wątek gry zapisuje do "tylnej", czytelnik trzyma "przednią",
+// a trzecia to ostatnia opublikowana. Wymiana przez jeden AtomicInteger - żadna strona nie czeka.
+// Jeden pisarz (wątek gry) i jeden czytelnik naraz (renderer).
+class FrameSnapshotBuffer {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;   // opublikowana migawka jeszcze nie odebrana
+
+    private final FrameSnapshot[] frames = {new FrameSnapshot(), new FrameSnapshot(), new FrameSnapshot()};
+    private final AtomicInteger ready = new AtomicInteger(1);
+    private int back = 0;    // tylko wątek gry
+    private int front = 2;   // tylko czytelnik
+
+    // Migawka do wypełnienia w bieżącym ticku
+    public FrameSnapshot back() {
+        return frames[back];
+    }
+
+    public void publish() {
+        back = ready.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    // Najnowsza opublikowana migawka; pozostaje ważna do następnego wywołania latest()
+    public FrameSnapshot latest() {
+        if ((ready.get() & FRESH) != 0) {
+            front = ready.getAndSet(front) & INDEX_MASK;
+        }
+        return frames[front];
+    }
+}
@@ -0,0 +1,30 @@
+// Źródło czasu dla logiki gry (cooldowny wież, opóźnienia spawnu)
+interface GameClock {
+    long currentTimeMillis();
+
+    // Numer ticku (stempel zdarzeń); zegar bez ticków zwraca 0
+    default long getTick() { return 0; }
+}
+
+// Zegar symulacji - czas liczony w tickach, niezależny od zegara ściennego
+class TickClock implements GameClock {
+    private final int ticksPerSecond;
+    private volatile long tick = 0;
+
+    public TickClock(int ticksPerSecond) {
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    public void advance() { tick++; }
+
+    // Tylko przy odtwarzaniu nagrania - zegar startuje z tego samego ticku co oryginalna gra
+    public void setTick(long tick) { this.tick = tick; }
+
+    @Override
+    public long getTick() { return tick; }
+
+    @Override
+    public long currentTimeMillis() {
+        return tick * 1000 / ticksPerSecond;
+    }
+}
@@ -8,20 +8,26 @@ enum GameEventType {
     TOWER_BUILT,
     TOWER_UPGRADED,
     GAME_OVER,
-    GAME_RESET
+    GAME_RESET;
+
+    // values() kopiuje tablicę przy każdym wywołaniu
+    static final GameEventType[] VALUES = values();
 }
 
 
+// Zdarzenie z liczbowym ładunkiem (kwota, numer fali, stan żyć) - bez pakowania w Integer.
+// GameManager i szyna zdarzeń przekazują typ i wartość prymitywnie, obiekt powstaje tylko
+// dla obserwatorów, którzy nadpisują wyłącznie onGameEvent(GameEvent).
 class GameEvent {
     public final GameEventType type;
-    public final Object data;
+    public final int value;
 
     public GameEvent(GameEventType type) {
-        this(type, null);
+        this(type, 0);
     }
 
-    public GameEvent(GameEventType type, Object data) {
+    public GameEvent(GameEventType type, int value) {
         this.type = type;
-        this.data = data;
+        this.value = value;
     }
-}
\ No newline at end of file
+}
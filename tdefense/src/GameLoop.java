@@ -0,0 +1,82 @@
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+
+// Pętla gry ze stałym krokiem: ticki co 1/ticksPerSecond s według terminów (deadline), nie "od ostatniego".
+// Gdy wątek nie nadąża, nadrabia zaległe ticki, ale najwyżej maxCatchUp naraz;
+// reszta jest pomijana i liczona w droppedTicks - wtedy gra faktycznie zwalnia.
+// Klatki rysowane w swoim tempie, renderer dostaje alpha = ułamek czasu od ostatniego ticku.
+class GameLoop implements Runnable {
+    private static final long SPIN_NANOS = 200_000;   // końcówkę oczekiwania kręcimy, parkNanos bywa spóźniony
+
+    private final long nsPerTick;
+    private final int maxCatchUp;
+    private final Runnable tick;
+    private DoubleConsumer renderer = alpha -> {};
+    private long nsPerFrame;
+
+    private volatile boolean running = true;
+    private volatile long droppedTicks = 0;
+    private volatile long ticks = 0;
+
+    public GameLoop(int ticksPerSecond, int maxCatchUp, Runnable tick) {
+        this.nsPerTick = 1_000_000_000L / ticksPerSecond;
+        this.maxCatchUp = maxCatchUp;
+        this.tick = tick;
+        this.nsPerFrame = nsPerTick;
+    }
+
+    public void setRenderer(DoubleConsumer renderer, int framesPerSecond) {
+        this.renderer = renderer;
+        this.nsPerFrame = 1_000_000_000L / (framesPerSecond > 0 ? framesPerSecond : 60);
+    }
+
+    public long getDroppedTicks() { return droppedTicks; }
+    public long getTicks() { return ticks; }
+    public void stop() { running = false; }
+
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+        long nextFrame = nextTick;
+
+        while (running) {
+            long now = System.nanoTime();
+
+            int ran = 0;
+            while (now - nextTick >= 0 && ran < maxCatchUp) {
+                tick.run();
+                ticks++;
+                nextTick += nsPerTick;
+                ran++;
+                now = System.nanoTime();
+            }
+            if (now - nextTick >= 0) {
+                // limit nadrabiania wyczerpany - zaległość jest porzucana (licznik w panelu statystyk,
+                // bez wypisywania na konsolę - pętla i tak jest już spóźniona)
+                long behind = (now - nextTick) / nsPerTick + 1;
+                nextTick += behind * nsPerTick;
+                droppedTicks += behind;
+            }
+
+            if (now - nextFrame >= 0) {
+                double alpha = 1.0 - (double) (nextTick - now) / nsPerTick;
+                renderer.accept(Math.max(0.0, Math.min(1.0, alpha)));
+                nextFrame += nsPerFrame;
+                // po długiej przerwie nie rysujemy serii zaległych klatek
+                if (System.nanoTime() - nextFrame > nsPerFrame) nextFrame = System.nanoTime() + nsPerFrame;
+            }
+
+            waitUntil(nextTick - nextFrame < 0 ? nextTick : nextFrame);
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -3,7 +3,6 @@ import java.awt.Rectangle;
 import java.awt.geom.Line2D;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 enum GameState { MENU, PREP_PHASE, WAVE_IN_PROGRESS, GAME_OVER }
 
@@ -17,31 +16,121 @@ class GameManager {
     public int money = 10000000, lives = 100, wave = 1;
 
     public boolean[][] occupiedMap;
-    public List<Enemy> enemies = new CopyOnWriteArrayList<>();
-    public List<ITower> towers = new CopyOnWriteArrayList<>();
-    public List<Projectile> projectiles = new CopyOnWriteArrayList<>();
+    public final EntityStore<Enemy> enemies = new EntityStore<>();
+    public final EntityStore<ITower> towers = new EntityStore<>();
+    public final EntityStore<Projectile> projectiles = new EntityStore<>();
     public Point[] pathPoints;
+    public PathTable pathTable;
+    public final EnemyColumns enemyData = new EnemyColumns(256);
+    public final SpatialGrid enemyGrid = new SpatialGrid(TILE_SIZE, COLS, ROWS);
+
+    private final ObjectPool<Enemy> enemyPool = new ObjectPool<>();
+    private final ObjectPool<Projectile> projectilePool = new ObjectPool<>();
 
     private List<GameObserver> observers = new ArrayList<>();
+    private final EventBus eventBus = new EventBus(4096, BackPressure.COALESCE);
+
+    // Tryb wsadowy: pieniądze, życia i zabójstwa zbierane do końca ticku.
+    // Zmiany stanu muszą wtedy iść z wątku gry, paczka nie jest synchronizowana.
+    private boolean batchedEvents = false;
+    private final TickEventBatch tickBatch = new TickEventBatch();
+    private final GameObserver eventBusForwarder = new GameObserver() {
+        @Override
+        public void onGameEvent(GameEventType type, int value) { eventBus.publish(type, value); }
+    };
+    private GameClock clock = System::currentTimeMillis;
 
-    private GameManager() {
+    // Losowość gry: jedno ziarno, z niego niezależne strumienie (GameRandom.split).
+    // Strumień wrogów zużywa wątek gry; renderer dostaje tylko ziarno efektów przez FrameSnapshot.
+    private long seed;
+    private GameRandom spawnRandom;
+    private long visualSeed;
+
+    // Osobna gra (np. sesja w SessionHost); getInstance() to gra okienkowa
+    GameManager() {
         occupiedMap = new boolean[COLS][ROWS];
         initPath();
         markPathAsOccupied();
+        setSeed(GameRandom.randomSeed());
     }
 
-    public static GameManager getInstance() {
+    public static synchronized GameManager getInstance() {
         if (instance == null) instance = new GameManager();
         return instance;
     }
 
-    public void addObserver(GameObserver o) { observers.add(o); }
+    public void addObserver(GameObserver o) { addObserver(o, DeliveryMode.SYNC); }
+
+    // ASYNC - zdarzenia trafiają do obserwatora z wątku szyny zdarzeń, nie z wątku gry
+    public void addObserver(GameObserver o, DeliveryMode mode) {
+        if (mode == DeliveryMode.ASYNC) eventBus.addObserver(o);
+        else observers.add(o);
+    }
+
+    public void removeObserver(GameObserver o) {
+        observers.remove(o);
+        eventBus.removeObserver(o);
+    }
+
+    public EventBus getEventBus() { return eventBus; }
+
+    public void setBatchedEvents(boolean batched) {
+        if (!batched) flushTickEvents();
+        this.batchedEvents = batched;
+    }
+
+    public boolean isBatchedEvents() { return batchedEvents; }
+
+    // Koniec ticku: jedno powiadomienie na obserwatora zamiast kilku na każdego wroga
+    public void flushTickEvents() {
+        if (tickBatch.isEmpty()) return;
+        for (GameObserver o : observers) {
+            o.onTickEvents(tickBatch);
+        }
+        if (eventBus.hasObservers()) tickBatch.replayTo(eventBusForwarder);
+        notifyObservers();
+        tickBatch.clear();
+    }
+
+    public GameClock getClock() { return clock; }
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+        eventBus.setTickSource(clock::getTick);
+    }
+
+    // Strumienie startują od nowa - to samo ziarno i te same decyzje gracza dają tę samą grę
+    public void setSeed(long seed) {
+        this.seed = seed;
+        GameRandom root = new GameRandom(seed);
+        spawnRandom = root.split();
+        visualSeed = root.split().nextLong();
+    }
+
+    // Odtworzenie strumieni w miejscu zapisu (SaveGame)
+    public void restoreRandom(long seed, GameRandom spawnRandom, long visualSeed) {
+        this.seed = seed;
+        this.spawnRandom = spawnRandom;
+        this.visualSeed = visualSeed;
+    }
+
+    public long getSeed() { return seed; }
+    public GameRandom getSpawnRandom() { return spawnRandom; }
+    public long getVisualSeed() { return visualSeed; }
 
     // NOWA METODA: Powiadamianie o konkretnych zdarzeniach
-    public void notifyObservers(GameEvent event) {
-        for(GameObserver o : observers) {
-            o.onGameEvent(event);
+    public void notifyObservers(GameEventType type, int value) {
+        for (int i = 0; i < observers.size(); i++) {
+            observers.get(i).onGameEvent(type, value);
         }
+        if (eventBus.hasObservers()) eventBus.publish(type, value);
+    }
+
+    public void notifyObservers(GameEventType type) {
+        notifyObservers(type, 0);
+    }
+
+    public void notifyObservers(GameEvent event) {
+        notifyObservers(event.type, event.value);
     }
 
     // Stara metoda dla kompatybilności wstecznej
@@ -51,47 +140,101 @@ class GameManager {
         }
     }
 
+    // Wróg z puli (klon prototypu tylko gdy pula jest pusta)
+    public Enemy spawnEnemy(String type, int healthBonus) {
+        Enemy e = enemyPool.obtain();
+        if (e == null) e = EnemyCache.getEnemy(type);
+        else e.reset(EnemyCache.getPrototype(type));
+        e.buffHealth(healthBonus);
+        e.attach(enemyData, pathPoints[0]);
+        enemies.add(e);
+        return e;
+    }
+
+    public void despawnEnemy(int index) {
+        Enemy e = enemies.get(index);
+        e.detach();
+        enemies.removeLater(index);
+        enemyPool.recycle(e);
+    }
+
+    public void fireProjectile(double x, double y, Enemy target, int damage) {
+        addProjectile(x, y, target.getColumns(), target.handle(), damage);
+    }
+
+    public Projectile addProjectile(double x, double y, EnemyColumns targets, long targetHandle, int damage) {
+        Projectile p = projectilePool.obtain();
+        if (p == null) p = new Projectile(x, y, targets, targetHandle, damage);
+        else p.init(x, y, targets, targetHandle, damage);
+        projectiles.add(p);
+        return p;
+    }
+
+    // Wróg odtworzony z zapisu w konkretnym slocie kolumn (dane slotu są już wpisane)
+    public Enemy restoreEnemy(String type, int slot) {
+        Enemy e = enemyPool.obtain();
+        if (e == null) e = EnemyCache.getEnemy(type);
+        else e.reset(EnemyCache.getPrototype(type));
+        e.restoreAt(enemyData, slot);
+        enemies.add(e);
+        return e;
+    }
+
+    public void expireProjectile(int index) {
+        Projectile p = projectiles.get(index);
+        projectiles.removeLater(index);
+        projectilePool.recycle(p);
+    }
+
     public void addMoney(int amount) {
         this.money += amount;
+        if (batchedEvents) { tickBatch.addMoney(amount); return; }
         notifyObservers();
-        notifyObservers(new GameEvent(GameEventType.MONEY_CHANGED, amount));
+        notifyObservers(GameEventType.MONEY_CHANGED, amount);
     }
 
     public void spendMoney(int amount) {
         this.money -= amount;
+        if (batchedEvents) { tickBatch.addMoney(-amount); return; }
         notifyObservers();
-        notifyObservers(new GameEvent(GameEventType.MONEY_CHANGED, -amount));
+        notifyObservers(GameEventType.MONEY_CHANGED, -amount);
     }
 
     public void takeDamage() {
         this.lives--;
-        notifyObservers(new GameEvent(GameEventType.LIVES_CHANGED, lives));
-        notifyObservers();
+        if (batchedEvents) {
+            tickBatch.loseLife(lives);
+        } else {
+            notifyObservers(GameEventType.LIVES_CHANGED, lives);
+            notifyObservers();
+        }
 
         if(lives <= 0) {
             state = GameState.GAME_OVER;
-            notifyObservers(new GameEvent(GameEventType.GAME_OVER));
+            flushTickEvents();
+            notifyObservers(GameEventType.GAME_OVER);
         }
     }
 
     public void enemyKilled(int reward) {
-        notifyObservers(new GameEvent(GameEventType.ENEMY_KILLED, reward));
+        if (batchedEvents) { tickBatch.addKill(reward); return; }
+        notifyObservers(GameEventType.ENEMY_KILLED, reward);
     }
 
     public void towerBuilt(int cost) {
-        notifyObservers(new GameEvent(GameEventType.TOWER_BUILT, cost));
+        notifyObservers(GameEventType.TOWER_BUILT, cost);
     }
 
     public void towerUpgraded(int cost) {
-        notifyObservers(new GameEvent(GameEventType.TOWER_UPGRADED, cost));
+        notifyObservers(GameEventType.TOWER_UPGRADED, cost);
     }
 
     public void waveStarted(int waveNumber) {
-        notifyObservers(new GameEvent(GameEventType.WAVE_STARTED, waveNumber));
+        notifyObservers(GameEventType.WAVE_STARTED, waveNumber);
     }
 
     public void waveCompleted(int waveNumber) {
-        notifyObservers(new GameEvent(GameEventType.WAVE_COMPLETED, waveNumber));
+        notifyObservers(GameEventType.WAVE_COMPLETED, waveNumber);
     }
 
     private void initPath() {
@@ -103,9 +246,11 @@ class GameManager {
                 new Point(14 * TILE_SIZE + TILE_SIZE/2, 4 * TILE_SIZE + TILE_SIZE/2),
                 new Point(MAP_WIDTH, 4 * TILE_SIZE + TILE_SIZE/2)
         };
+        pathTable = new PathTable(pathPoints);
     }
 
-    private void markPathAsOccupied() {
+    // pakietowa widoczność - mierzona w benchmarkach
+    void markPathAsOccupied() {
         for (int i = 0; i < pathPoints.length - 1; i++) {
             Line2D line = new Line2D.Float(pathPoints[i], pathPoints[i+1]);
             for (int c = 0; c < COLS; c++) {
@@ -117,12 +262,30 @@ class GameManager {
         }
     }
 
-    public void resetGame() {
-        money = 10000000; lives = 100; wave = 1; state = GameState.PREP_PHASE;
+    // Pusta plansza bez ścieżki; obiekty wrogów i pocisków wracają do pul
+    void clearBoard() {
+        // zdjęte w tym ticku są już w pulach - nie mogą trafić tam drugi raz
+        enemies.flushRemovals();
+        projectiles.flushRemovals();
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy e = enemies.get(i);
+            e.detach();
+            enemyPool.recycle(e);
+        }
+        for (int i = 0; i < projectiles.size(); i++) projectilePool.recycle(projectiles.get(i));
         enemies.clear(); towers.clear(); projectiles.clear();
+        enemyData.clear();
+        enemyGrid.clear();
+        tickBatch.clear();
         occupiedMap = new boolean[COLS][ROWS];
+    }
+
+    public void resetGame() {
+        money = 10000000; lives = 100; wave = 1; state = GameState.PREP_PHASE;
+        setSeed(seed);
+        clearBoard();
         markPathAsOccupied();
         notifyObservers();
-        notifyObservers(new GameEvent(GameEventType.GAME_RESET));
+        notifyObservers(GameEventType.GAME_RESET);
     }
 }
\ No newline at end of file
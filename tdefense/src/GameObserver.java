@@ -4,4 +4,13 @@ interface GameObserver {
     default void onGameUpdate() {}
 
     default void onGameEvent(GameEvent event) {}
-}
\ No newline at end of file
+
+    // Główna ścieżka zdarzeń - bez alokacji; domyślnie przekazuje dalej jako obiekt GameEvent
+    default void onGameEvent(GameEventType type, int value) { onGameEvent(new GameEvent(type, value)); }
+
+    // Zdarzenie z szyny (ASYNC) ze stemplem z chwili publikacji - tick i czas ścienny (epoch ms)
+    default void onGameEvent(GameEventType type, int value, long tick, long wallMillis) { onGameEvent(type, value); }
+
+    // Tryb wsadowy - domyślnie paczka jest rozwijana w pojedyncze zdarzenia
+    default void onTickEvents(TickEventBatch batch) { batch.replayTo(this); }
+}
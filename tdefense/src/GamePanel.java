@@ -1,6 +1,9 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
@@ -9,7 +12,7 @@ import java.util.List;
 
 class GamePanel extends JPanel implements Runnable, GameObserver {
     private GameManager gm = GameManager.getInstance();
-    private WaveManager waveManager = new WaveManager();
+    private Simulation simulation = new Simulation(gm);
     private TowerFactoryManager factoryManager = TowerFactoryManager.getInstance();
 
     private String selectedTowerType = "ARCHER";
@@ -27,6 +30,23 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
     // UI Panels
     private boolean showStatistics = false;
     private boolean showLogs = false;
+    private final String[] logTail = new String[12];
+
+    // Statyczne tło mapy (trawa/śnieg + ścieżka)
+    private BufferedImage terrain;
+    private boolean terrainWinter;
+    private long terrainSeed;
+    private Point[] terrainPath;
+    private double terrainScale;
+    private int[] barX = new int[64], barY = new int[64], barW = new int[64];
+
+    // Aktywne renderowanie (null = zwykłe repaint() na EDT)
+    private BufferStrategy bufferStrategy;
+    private Window renderWindow;
+    private int refreshRate;
+    private GameLoop gameLoop;
+    private static final int MAX_CATCH_UP_TICKS = 5;   // tyle ticków najwyżej nadrabiamy przed następną klatką
+    private FrameSnapshot frame;   // klatka rysowana w tej chwili (tylko renderer)
     private boolean showAchievements = false;
     private StatisticsObserver statsObserver;
     private LoggerObserver loggerObserver;
@@ -48,8 +68,8 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
     private Map<Rectangle, IGameCommand> commands = new HashMap<>();
 
     // --- UPGRADE MENU VARIABLES (NOWE) ---
+    // tylko wątek gry (handleClick); renderer czyta kopię z migawki (captureUi)
     private boolean isUpgradeMenuOpen = false;
-    private ITower selectedTowerForUpgrade = null;
     private int selectedTowerIndex = -1;
     private int menuX = 0;
     private int menuY = 0;
@@ -78,7 +98,8 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
                 factoryManager.getTowerCost("SNIPER"), factoryManager.getTowerRange("SNIPER")));
         commands.put(shopButtons[3], new BuyTowerCommand(this, "LASER",
                 factoryManager.getTowerCost("LASER"), factoryManager.getTowerRange("LASER")));
-        commands.put(btnStartWave, new StartWaveCommand(waveManager));
+        commands.put(btnStartWave, new StartWaveCommand(simulation));
+        simulation.setFrameOverlay(this::captureUi);
 
         MouseAdapter ma = new MouseAdapter() {
             @Override
@@ -90,7 +111,8 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
 
             @Override
             public void mouseClicked(MouseEvent e) {
-                handleClick(e);
+                // klik obsługuje wątek gry na początku ticku - EDT nie dotyka stanu gry
+                simulation.submit(() -> handleClick(e));
             }
         };
         this.addMouseListener(ma);
@@ -127,6 +149,8 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
         this.achievementObserver = achievement;
     }
 
+    public Simulation getSimulation() { return simulation; }
+
     public void toggleStatistics() { showStatistics = !showStatistics; repaint(); }
     public void toggleLogs() { showLogs = !showLogs; repaint(); }
     public void toggleAchievements() { showAchievements = !showAchievements; repaint(); }
@@ -143,10 +167,9 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
     }
 
     @Override
-    public void onGameEvent(GameEvent event) {
-        if (event.type == GameEventType.WAVE_STARTED && event.data instanceof Integer) {
-            int wave = (Integer) event.data;
-            if (wave == 11) {
+    public void onGameEvent(GameEventType type, int value) {
+        if (type == GameEventType.WAVE_STARTED) {
+            if (value == 11) {
                 triggerMapTransition();
             }
         }
@@ -188,15 +211,15 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
 
             // Każde kliknięcie poza menu zamyka menu
             isUpgradeMenuOpen = false;
-            selectedTowerForUpgrade = null;
+            selectedTowerIndex = -1;
             return;
         }
 
 
         if (gm.state == GameState.MENU && btnStartGame.contains(x, y)) {
-            gm.resetGame();
+            startGame();
         } else if (gm.state == GameState.GAME_OVER && btnRetry.contains(x, y)) {
-            gm.resetGame();
+            startGame();
         } else if (gm.state == GameState.PREP_PHASE || gm.state == GameState.WAVE_IN_PROGRESS) {
 
             if (y > gm.MAP_HEIGHT) {
@@ -215,13 +238,13 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
             if (c >= 0 && c < gm.COLS && r >= 0 && r < gm.ROWS) {
                 // PRAWY PRZYCISK MYSZY - OTWIERANIE MENU
                 if (SwingUtilities.isRightMouseButton(e) && gm.occupiedMap[c][r]) {
-                    for (int i = 0; i < gm.towers.size(); i++) {
-                        ITower t = gm.towers.get(i);
+                    EntityStore<ITower> towers = gm.towers;
+                    for (int i = 0; i < towers.size(); i++) {
+                        ITower t = towers.get(i);
                         if (Math.abs(t.getX() - (c * gm.TILE_SIZE + gm.TILE_SIZE / 2)) < 20 &&
                                 Math.abs(t.getY() - (r * gm.TILE_SIZE + gm.TILE_SIZE / 2)) < 20) {
 
                             // Ustawiamy menu
-                            selectedTowerForUpgrade = t;
                             selectedTowerIndex = i;
                             menuX = x;
                             menuY = y;
@@ -237,75 +260,79 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
                 }
                 // LEWY PRZYCISK MYSZY - STAWIANIE WIEŻY
                 else if (SwingUtilities.isLeftMouseButton(e) && !gm.occupiedMap[c][r]) {
-                    if (gm.money >= selectedTowerCost) {
-                        gm.spendMoney(selectedTowerCost);
-                        int tx = c * gm.TILE_SIZE + gm.TILE_SIZE / 2;
-                        int ty = r * gm.TILE_SIZE + gm.TILE_SIZE / 2;
-
-                        ITower t = factoryManager.createTower(selectedTowerType, tx, ty);
-                        gm.towers.add(t);
-                        gm.occupiedMap[c][r] = true;
-                        gm.towerBuilt(selectedTowerCost);
-                    }
+                    simulation.placeTower(selectedTowerType, c, r);
                 }
             }
         }
     }
 
+    // Ziarno na konsolę - z nim i z nagraniem (.tdr) da się odtworzyć zgłoszoną grę
+    private void startGame() {
+        simulation.startGame();
+        System.out.println("[GRA] Nowa gra, ziarno: " + gm.getSeed());
+    }
+
     // ulepszenia ---
     private void applyUpgrade(int type) {
-        if (selectedTowerForUpgrade == null) return;
-
-        ITower upgradedTower = null;
-        int cost = 0;
-
-        switch (type) {
-            case 0: // Damage
-                if (gm.money >= 100) {
-                    upgradedTower = new DamageUpgradeDecorator(selectedTowerForUpgrade);
-                    cost = 100;
-                }
-                break;
-            case 1: // Range
-                if (gm.money >= 80) {
-                    upgradedTower = new RangeUpgradeDecorator(selectedTowerForUpgrade);
-                    cost = 80;
-                }
-                break;
-            case 2: // Fire Rate
-                if (gm.money >= 120) {
-                    upgradedTower = new FireRateUpgradeDecorator(selectedTowerForUpgrade);
-                    cost = 120;
-                }
-                break;
-        }
+        if (selectedTowerIndex < 0) return;
 
-        if (upgradedTower != null) {
-            gm.spendMoney(cost);
-            gm.towers.set(selectedTowerIndex, upgradedTower);
-            gm.towerUpgraded(cost);
-        } else {
+        if (!simulation.upgradeTower(selectedTowerIndex, type)) {
             System.out.println("Niewystarczające środki na ulepszenie.");
         }
     }
 
+    // Stan interfejsu zmieniany przez wątek gry - do migawki, zanim zostanie opublikowana
+    private void captureUi(FrameSnapshot f) {
+        f.upgradeMenuTower = isUpgradeMenuOpen ? selectedTowerIndex : -1;
+        f.upgradeMenuX = menuX;
+        f.upgradeMenuY = menuY;
+        f.selectedTowerType = selectedTowerType;
+        f.selectedTowerRange = selectedTowerRange;
+    }
+
     @Override
     public void run() {
-        long lastTime = System.nanoTime();
-        double nsPerTick = 1000000000.0 / 60.0;
-        while (true) {
-            long now = System.nanoTime();
-            if (now - lastTime >= nsPerTick) {
-                update();
-                repaint();
-                lastTime = now;
-            }
-            try {
-                Thread.sleep(2);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+        gameLoop = new GameLoop(Simulation.TICKS_PER_SECOND, MAX_CATCH_UP_TICKS, this::update);
+        if (bufferStrategy != null) {
+            // aktywne renderowanie: klatki w tempie odświeżania ekranu, niezależnie od ticków
+            gameLoop.setRenderer(this::renderFrame, refreshRate);
+        } else {
+            gameLoop.setRenderer(alpha -> repaint(), Simulation.TICKS_PER_SECOND);
         }
+        gameLoop.run();
+    }
+
+    public long getDroppedTicks() {
+        return gameLoop != null ? gameLoop.getDroppedTicks() : 0;
+    }
+
+    // Rysowanie z wątku gry prosto do bufora okna (BufferStrategy) zamiast repaint() przez EDT.
+    // refreshRate - częstotliwość ekranu, 0 jeśli nieznana (wtedy 60 Hz).
+    public void enableActiveRendering(Window window, int refreshRate) {
+        window.setIgnoreRepaint(true);
+        setIgnoreRepaint(true);
+        window.createBufferStrategy(2);
+        renderWindow = window;
+        this.refreshRate = refreshRate;
+        bufferStrategy = window.getBufferStrategy();
+    }
+
+    private void renderFrame(double alpha) {
+        Point origin = SwingUtilities.convertPoint(this, 0, 0, renderWindow);
+        do {
+            do {
+                Graphics2D g = (Graphics2D) bufferStrategy.getDrawGraphics();
+                try {
+                    g.translate(origin.x, origin.y);
+                    g.clipRect(0, 0, getWidth(), getHeight());
+                    render(g, alpha);
+                } finally {
+                    g.dispose();
+                }
+            } while (bufferStrategy.contentsRestored());
+            bufferStrategy.show();
+        } while (bufferStrategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
     }
 
     private void update() {
@@ -330,37 +357,19 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
             }
         }
 
-        if (gm.state == GameState.WAVE_IN_PROGRESS) {
-            waveManager.update();
-        }
-        if (gm.state == GameState.PREP_PHASE || gm.state == GameState.WAVE_IN_PROGRESS) {
-            for (Enemy enemy : gm.enemies) {
-                enemy.update();
-                if (enemy.finished) {
-                    gm.takeDamage();
-                    gm.enemies.remove(enemy);
-                } else if (!enemy.alive) {
-                    gm.addMoney(enemy.reward);
-                    gm.enemyKilled(enemy.reward);
-                    gm.enemies.remove(enemy);
-                }
-            }
-            for (ITower t : gm.towers) {
-                t.update();
-            }
-            for (Projectile p : gm.projectiles) {
-                p.update();
-                if (!p.active) {
-                    gm.projectiles.remove(p);
-                }
-            }
-        }
+        simulation.tick();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g;
+        // przy aktywnym renderowaniu klatki rysuje wyłącznie wątek gry (jeden czytelnik migawek)
+        if (bufferStrategy != null) return;
+        render((Graphics2D) g, 1.0);
+    }
+
+    // alpha - ułamek czasu od ostatniego ticku (1.0 = stan z ostatniego ticku, bez interpolacji)
+    private void render(Graphics2D g2, double alpha) {
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
@@ -368,19 +377,22 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
         g2.setColor(Color.BLACK);
         g2.fillRect(0, 0, getWidth(), getHeight());
 
+        frame = simulation.latestFrame();
+        if (frame.state == null) return;   // nic jeszcze nie opublikowano
+
         g2.translate(offsetX, offsetY);
         g2.scale(scale, scale);
 
-        if (gm.state == GameState.MENU) {
+        if (frame.state == GameState.MENU) {
             drawMenu(g2);
-        } else if (gm.state == GameState.GAME_OVER) {
+        } else if (frame.state == GameState.GAME_OVER) {
             drawGameOver(g2);
         } else {
-            drawGame(g2);
+            drawGame(g2, alpha);
             drawUI(g2);
 
             // --- RYSOWANIE MENU ULEPSZEŃ (NA WIERZCHU) ---
-            if (isUpgradeMenuOpen) {
+            if (frame.upgradeMenuTower >= 0) {
                 drawUpgradeMenu(g2);
             }
         }
@@ -411,6 +423,18 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
 
     // --- METODA RYSOWANIA MENU ULEPSZEŃ (NOWE) ---
     private void drawUpgradeMenu(Graphics2D g) {
+        int menuX = frame.upgradeMenuX, menuY = frame.upgradeMenuY;
+
+        // Zasięg wybranej wieży
+        int t = frame.upgradeMenuTower;
+        if (t < frame.towerCount) {
+            int range = frame.towerRange[t];
+            g.setColor(new Color(241, 196, 15, 150));
+            g.setStroke(new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{9}, 0));
+            g.drawOval(frame.towerX[t] - range, frame.towerY[t] - range, range * 2, range * 2);
+            g.setStroke(new BasicStroke(1));
+        }
+
         // Tło menu (półprzezroczyste czarne)
         g.setColor(new Color(20, 20, 20, 230));
         g.fillRoundRect(menuX, menuY, MENU_WIDTH, MENU_HEIGHT, 10, 10);
@@ -429,21 +453,21 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
         g.setFont(new Font("Arial", Font.BOLD, 12));
 
         // Opcja 1: Damage
-        boolean canAffordDmg = gm.money >= 100;
+        boolean canAffordDmg = frame.money >= 100;
         g.setColor(canAffordDmg ? Color.WHITE : Color.GRAY);
         g.drawString("💪 Atak (+25)", menuX + 10, menuY + 20);
         g.setColor(canAffordDmg ? new Color(241, 196, 15) : Color.DARK_GRAY);
         g.drawString("100$", menuX + 110, menuY + 20);
 
         // Opcja 2: Range
-        boolean canAffordRng = gm.money >= 80;
+        boolean canAffordRng = frame.money >= 80;
         g.setColor(canAffordRng ? Color.WHITE : Color.GRAY);
         g.drawString("🎯 Zasięg (+50)", menuX + 10, menuY + 20 + BUTTON_HEIGHT);
         g.setColor(canAffordRng ? new Color(241, 196, 15) : Color.DARK_GRAY);
         g.drawString("80$", menuX + 110, menuY + 20 + BUTTON_HEIGHT);
 
         // Opcja 3: Fire Rate
-        boolean canAffordSpd = gm.money >= 120;
+        boolean canAffordSpd = frame.money >= 120;
         g.setColor(canAffordSpd ? Color.WHITE : Color.GRAY);
         g.drawString("⚡ Szybkość", menuX + 10, menuY + 20 + BUTTON_HEIGHT * 2);
         g.setColor(canAffordSpd ? new Color(241, 196, 15) : Color.DARK_GRAY);
@@ -495,7 +519,7 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
         g.setColor(new Color(0, 0, 0, 200));
         g.fillRect(0, 0, gm.MAP_WIDTH, gm.MAP_HEIGHT + gm.UI_HEIGHT);
 
-        boolean isVictory = gm.wave > 20;
+        boolean isVictory = frame.wave > 20;
 
         if (isVictory) {
             g.setFont(new Font("Arial", Font.BOLD, 70));
@@ -529,51 +553,44 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
         g.drawString("RETRY", (int) btnRetry.getX() + 65, (int) btnRetry.getY() + 40);
     }
 
-    private void drawGame(Graphics2D g) {
-        boolean isWinter = gm.wave >= 11;
-
-        if (isWinter) {
-            drawWinterBackground(g);
-        } else {
-            drawGrassBackground(g);
-        }
-
-        // Draw path
-        Color pathColor = isWinter ? new Color(200, 220, 240) : new Color(139, 119, 101);
-        Color borderColor = isWinter ? new Color(180, 200, 220) : new Color(101, 84, 69);
-
-        g.setColor(pathColor);
-        g.setStroke(new BasicStroke(gm.TILE_SIZE - 5, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-        Point[] p = gm.pathPoints;
-        for (int i = 0; i < p.length - 1; i++) {
-            g.drawLine(p[i].x, p[i].y, p[i + 1].x, p[i + 1].y);
-        }
-
-        g.setColor(borderColor);
-        g.setStroke(new BasicStroke(gm.TILE_SIZE - 2, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-        for (int i = 0; i < p.length - 1; i++) {
-            g.drawLine(p[i].x, p[i].y, p[i + 1].x, p[i + 1].y);
-        }
-
-        g.setStroke(new BasicStroke(1));
-
-        for (Enemy e : gm.enemies) {
-            e.draw(g);
+    private void drawGame(Graphics2D g, double alpha) {
+        boolean isWinter = frame.wave >= 11;
+
+        // tło i encje to gotowe obrazy - kopiowane w pikselach ekranu
+        FrameSnapshot f = frame;
+        SpriteAtlas atlas = SpriteAtlas.getInstance();
+        AffineTransform mapSpace = g.getTransform();
+        atlas.beginPixels(g);
+        g.drawImage(terrainImage(isWinter, atlas.getScale()), 0, 0, null);
+        for (int i = 0; i < f.enemyCount; i++) {
+            atlas.enemy(f.enemyType[i], f.enemyColor[i], f.enemySize[i], isWinter)
+                 .draw(g, lerp(f.enemyPrevX[i], f.enemyX[i], alpha), lerp(f.enemyPrevY[i], f.enemyY[i], alpha));
         }
-        for (ITower t : gm.towers) {
-            t.draw(g);
+        g.setTransform(mapSpace);
+        drawHealthBars(g, f, alpha);
+
+        atlas.beginPixels(g);
+        for (int i = 0; i < f.towerCount; i++) {
+            atlas.tower(f.towerColor[i]).draw(g, f.towerX[i], f.towerY[i]);
+            int end = f.towerBadgeStart[i] + f.towerBadgeCount[i];
+            for (int b = f.towerBadgeStart[i]; b < end; b++) {
+                atlas.badge(f.towerBadges[b]).draw(g, f.towerX[i], f.towerY[i]);
+            }
         }
-        for (Projectile pr : gm.projectiles) {
-            pr.draw(g);
+        SpriteAtlas.Sprite projectile = atlas.projectile();
+        for (int i = 0; i < f.projectileCount; i++) {
+            projectile.draw(g, lerp(f.projectilePrevX[i], f.projectileX[i], alpha),
+                    lerp(f.projectilePrevY[i], f.projectileY[i], alpha));
         }
+        g.setTransform(mapSpace);
 
         // Ghost Tower
-        if (mouseY < gm.MAP_HEIGHT && gm.state != GameState.GAME_OVER && !isUpgradeMenuOpen) {
+        if (mouseY < gm.MAP_HEIGHT && frame.state != GameState.GAME_OVER && frame.upgradeMenuTower < 0) {
             int c = mouseX / gm.TILE_SIZE;
             int r = mouseY / gm.TILE_SIZE;
             int x = c * gm.TILE_SIZE;
             int y = r * gm.TILE_SIZE;
-            boolean can = (c >= 0 && c < gm.COLS && r >= 0 && r < gm.ROWS && !gm.occupiedMap[c][r]);
+            boolean can = (c >= 0 && c < gm.COLS && r >= 0 && r < gm.ROWS && !frame.isOccupied(c, r, gm.ROWS));
 
             g.setColor(can ? new Color(46, 204, 113, 80) : new Color(231, 76, 60, 80));
             g.fillRoundRect(x + 2, y + 2, gm.TILE_SIZE - 4, gm.TILE_SIZE - 4, 10, 10);
@@ -587,15 +604,93 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
             g.setColor(can ? new Color(255, 255, 255, 181) : new Color(231, 76, 60, 100));
             g.setStroke(new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{9}, 0));
             g.drawOval(
-                    x + gm.TILE_SIZE / 2 - selectedTowerRange,
-                    y + gm.TILE_SIZE / 2 - selectedTowerRange,
-                    selectedTowerRange * 2,
-                    selectedTowerRange * 2
+                    x + gm.TILE_SIZE / 2 - frame.selectedTowerRange,
+                    y + gm.TILE_SIZE / 2 - frame.selectedTowerRange,
+                    frame.selectedTowerRange * 2,
+                    frame.selectedTowerRange * 2
             );
             g.setStroke(new BasicStroke(1));
         }
     }
 
+    // Pozycja między poprzednim a bieżącym tickiem, alpha w [0, 1]
+    private static double lerp(float prev, float cur, double alpha) {
+        return prev + (cur - prev) * alpha;
+    }
+
+    // Paski zdrowia wszystkich wrogów naraz: najpierw wszystkie tła, potem wszystkie wypełnienia
+    private void drawHealthBars(Graphics2D g, FrameSnapshot f, double alpha) {
+        int n = f.enemyCount;
+        if (barX.length < n) {
+            barX = new int[n * 2];
+            barY = new int[n * 2];
+            barW = new int[n * 2];
+        }
+        for (int i = 0; i < n; i++) {
+            barX[i] = (int) lerp(f.enemyPrevX[i], f.enemyX[i], alpha) - 10;
+            barY[i] = (int) lerp(f.enemyPrevY[i], f.enemyY[i], alpha) - f.enemySize[i] - 8;
+            barW[i] = (int) (20 * f.enemyHealth[i]);
+        }
+
+        g.setColor(Color.RED);
+        for (int i = 0; i < n; i++) g.fillRect(barX[i], barY[i], 20, 4);
+        g.setColor(Color.GREEN);
+        for (int i = 0; i < n; i++) g.fillRect(barX[i], barY[i], barW[i], 4);
+    }
+
+    // Tło i ścieżka renderowane raz do obrazu w rozdzielczości ekranu (1 piksel obrazu = 1 piksel ekranu).
+    // Odświeżane tylko przy zmianie mapy (nowe pathPoints), skali okna, przejściu na zimę albo nowej grze.
+    private Image terrainImage(boolean isWinter, double scale) {
+        if (terrain != null && terrainWinter == isWinter && terrainPath == frame.pathPoints
+                && terrainScale == scale && terrainSeed == frame.visualSeed) {
+            return terrain;
+        }
+
+        int w = (int) Math.ceil(gm.MAP_WIDTH * scale);
+        int h = (int) Math.ceil(gm.MAP_HEIGHT * scale);
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(w, h)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.scale(scale, scale);
+        if (isWinter) {
+            drawWinterBackground(g);
+        } else {
+            drawGrassBackground(g);
+        }
+        drawPath(g, isWinter);
+        g.dispose();
+
+        if (terrain != null) terrain.flush();
+        terrain = image;
+        terrainWinter = isWinter;
+        terrainSeed = frame.visualSeed;
+        terrainPath = frame.pathPoints;
+        terrainScale = scale;
+        return terrain;
+    }
+
+    private void drawPath(Graphics2D g, boolean isWinter) {
+        Color pathColor = isWinter ? new Color(200, 220, 240) : new Color(139, 119, 101);
+        Color borderColor = isWinter ? new Color(180, 200, 220) : new Color(101, 84, 69);
+
+        g.setColor(pathColor);
+        g.setStroke(new BasicStroke(gm.TILE_SIZE - 5, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        Point[] p = frame.pathPoints;
+        for (int i = 0; i < p.length - 1; i++) {
+            g.drawLine(p[i].x, p[i].y, p[i + 1].x, p[i + 1].y);
+        }
+
+        g.setColor(borderColor);
+        g.setStroke(new BasicStroke(gm.TILE_SIZE - 2, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        for (int i = 0; i < p.length - 1; i++) {
+            g.drawLine(p[i].x, p[i].y, p[i + 1].x, p[i + 1].y);
+        }
+    }
+
     private void drawGrassBackground(Graphics2D g) {
         g.setColor(new Color(60, 179, 113));
         g.fillRect(0, 0, gm.MAP_WIDTH, gm.MAP_HEIGHT);
@@ -614,9 +709,11 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
         g.setColor(new Color(240, 248, 255));
         g.fillRect(0, 0, gm.MAP_WIDTH, gm.MAP_HEIGHT);
 
+        // strumień efektów gry od początku - płatki śniegu w tych samych miejscach przy każdym odświeżeniu tła
+        GameRandom snow = new GameRandom(frame.visualSeed);
         for (int x = 0; x < gm.MAP_WIDTH; x += 30) {
             for (int y = 0; y < gm.MAP_HEIGHT; y += 30) {
-                if (Math.random() > 0.8) {
+                if (snow.nextDouble() > 0.8) {
                     g.setColor(new Color(200, 220, 240, 100));
                     g.fillOval(x, y, 8, 8);
                 }
@@ -629,7 +726,7 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
     }
 
     private void drawUI(Graphics2D g) {
-        boolean isWinter = gm.wave >= 11;
+        boolean isWinter = frame.wave >= 11;
         Color uiColor1 = isWinter ? new Color(40, 50, 70) : new Color(30, 39, 46);
         Color uiColor2 = isWinter ? new Color(50, 60, 80) : new Color(45, 52, 54);
 
@@ -646,9 +743,9 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
         int statsX = 560;
         int statsY = gm.MAP_HEIGHT + 20;
 
-        drawStatBox(g, statsX, statsY, "💰 PIENIĄDZE", String.valueOf(gm.money), new Color(241, 196, 15));
-        drawStatBox(g, statsX, statsY + 35, "❤ ŻYCIA", String.valueOf(gm.lives), new Color(231, 76, 60));
-        drawStatBox(g, statsX, statsY + 70, isWinter ? "❄ FALA" : "🌊 FALA", String.valueOf(gm.wave),
+        drawStatBox(g, statsX, statsY, "💰 PIENIĄDZE", String.valueOf(frame.money), new Color(241, 196, 15));
+        drawStatBox(g, statsX, statsY + 35, "❤ ŻYCIA", String.valueOf(frame.lives), new Color(231, 76, 60));
+        drawStatBox(g, statsX, statsY + 70, isWinter ? "❄ FALA" : "🌊 FALA", String.valueOf(frame.wave),
                 isWinter ? new Color(100, 200, 255) : new Color(52, 152, 219));
 
         g.setFont(new Font("Arial", Font.PLAIN, 11));
@@ -665,8 +762,8 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
         };
 
         for (int i = 0; i < 4; i++) {
-            boolean sel = selectedTowerType.equals(new String[]{"ARCHER", "CANNON", "SNIPER", "LASER"}[i]);
-            boolean canAfford = gm.money >= costs[i];
+            boolean sel = frame.selectedTowerType.equals(new String[]{"ARCHER", "CANNON", "SNIPER", "LASER"}[i]);
+            boolean canAfford = frame.money >= costs[i];
 
             if (sel) {
                 g.setColor(colors[i]);
@@ -696,7 +793,7 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
             g.drawString(costs[i] + "$", shopButtons[i].x + 35, shopButtons[i].y + 70);
         }
 
-        boolean canStart = gm.state == GameState.PREP_PHASE;
+        boolean canStart = frame.state == GameState.PREP_PHASE;
 
         if (canStart) {
             g.setColor(new Color(46, 204, 113, 50));
@@ -765,7 +862,8 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
                 "Pieniądze zarobione:",
                 "Pieniądze wydane:",
                 "Fale ukończone:",
-                "Najwyższa fala:"
+                "Najwyższa fala:",
+                "Pominięte ticki:"
         };
 
         String[] values = {
@@ -774,7 +872,8 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
                 statsObserver.getTotalMoneyEarned() + "$",
                 statsObserver.getTotalMoneySpent() + "$",
                 String.valueOf(statsObserver.getTotalWavesCompleted()),
-                String.valueOf(statsObserver.getHighestWaveReached())
+                String.valueOf(statsObserver.getHighestWaveReached()),
+                String.valueOf(getDroppedTicks())
         };
 
         for (int i = 0; i < labels.length; i++) {
@@ -811,16 +910,14 @@ class GamePanel extends JPanel implements Runnable, GameObserver {
         g.setFont(new Font("Arial", Font.BOLD, 28));
         g.drawString("📝 DZIENNIK ZDARZEŃ", x + 20, y + 40);
 
-        List<String> logs = loggerObserver.getEventLog();
-        int displayCount = Math.min(12, logs.size());
-        int startIndex = Math.max(0, logs.size() - displayCount);
+        int displayCount = loggerObserver.getTail(logTail);
 
         g.setFont(new Font("Monospaced", Font.PLAIN, 14));
         int yPos = y + 80;
         int lineHeight = 30;
 
-        for (int i = startIndex; i < logs.size(); i++) {
-            String log = logs.get(i);
+        for (int i = 0; i < displayCount; i++) {
+            String log = logTail[i];
             if (log.length() > 65) {
                 log = log.substring(0, 62) + "...";
             }
@@ -0,0 +1,91 @@
+// Generator SplitMix64 (ten sam algorytm co java.util.SplittableRandom), ale z dostępnym stanem -
+// dwie liczby (seed, gamma) wystarczą, żeby zapisać i odtworzyć strumień w dowolnym miejscu.
+// Każda gra ma własne strumienie wydzielone przez split(), więc równoległe gry nie dzielą generatora,
+// a cały przebieg da się powtórzyć z jednego ziarna. Nie jest bezpieczny wątkowo - jeden strumień, jeden wątek.
+final class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long seed;
+    private final long gamma;   // zawsze nieparzysta
+
+    public GameRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private GameRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    // Odtworzenie strumienia zapisanego przez getSeed()/getGamma()
+    public static GameRandom restore(long seed, long gamma) {
+        if ((gamma & 1) == 0) throw new IllegalArgumentException("Gamma musi być nieparzysta: " + gamma);
+        return new GameRandom(seed, gamma);
+    }
+
+    // Ziarno dla nowej gry, gdy gracz go nie podał
+    public static long randomSeed() {
+        return mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime());
+    }
+
+    public long getSeed() { return seed; }
+    public long getGamma() { return gamma; }
+
+    // Nowy, niezależny strumień; ten generator przesuwa się o dwa kroki.
+    // Podział jak w pracy o SplitMix i w JDK 8 - SplittableRandom z JDK 17 liczy gammę inaczej,
+    // więc dzieci obu generatorów różnią się, choć same sekwencje z ziarna są identyczne.
+    public GameRandom split() {
+        return new GameRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    // Liczba z [0, bound) bez przesunięcia rozkładu
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound musi być dodatni: " + bound);
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+        if ((bound & m) == 0) return r & m;
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) { }
+        return r;
+    }
+
+    // Liczba z [0, 1)
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    public boolean nextBoolean() {
+        return mix32(nextSeed()) < 0;
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb185e2a5d2c1L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
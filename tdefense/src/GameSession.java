@@ -0,0 +1,115 @@
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Jedna niezależna gra: własny GameManager (plansza, encje, obserwatorzy), WaveManager i zegar.
+// Wspólne z innymi sesjami są tylko dane niezmienne - prototypy wrogów (EnemyCache)
+// i fabryki wież (TowerFactoryManager).
+class GameSession {
+    private final int id;
+    private final Simulation simulation;
+    private volatile ScheduledFuture<?> task;
+
+    GameSession(int id) {
+        this.id = id;
+        this.simulation = new Simulation(new GameManager());
+    }
+
+    public int getId() { return id; }
+    public Simulation getSimulation() { return simulation; }
+    public GameManager getGameManager() { return simulation.getGameManager(); }
+
+    // Akcja gracza z dowolnego wątku - wykonana na początku następnego ticku sesji
+    public void submit(IGameCommand command) {
+        simulation.submit(command);
+    }
+
+    // Ostatnia klatka sesji; jeden czytelnik naraz (jak w FrameSnapshotBuffer)
+    public FrameSnapshot latestFrame() {
+        return simulation.latestFrame();
+    }
+
+    public boolean isRunning() {
+        ScheduledFuture<?> t = task;
+        return t != null && !t.isDone();
+    }
+
+    void setTask(ScheduledFuture<?> task) { this.task = task; }
+    ScheduledFuture<?> getTask() { return task; }
+}
+
+// Wiele sesji w jednej JVM, tykanych przez wspólną pulę wątków zamiast wątku na grę.
+// scheduleAtFixedRate nigdy nie uruchamia tej samej sesji równolegle ze sobą,
+// więc stan sesji nadal zmienia naraz tylko jeden wątek (choć niekoniecznie ten sam).
+class SessionHost {
+    private final ScheduledExecutorService scheduler;
+    private final Map<Integer, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final long nsPerTick = 1_000_000_000L / Simulation.TICKS_PER_SECOND;
+
+    public SessionHost() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SessionHost(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(threads, r -> {
+            Thread t = new Thread(r, "game-sessions-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Nowa gra, od razu w fazie przygotowań i tykana co 1/TICKS_PER_SECOND s
+    public GameSession open() {
+        GameSession session = new GameSession(nextId.getAndIncrement());
+        session.getSimulation().startGame();
+        ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(() -> tick(session), 0, nsPerTick, TimeUnit.NANOSECONDS);
+        session.setTask(task);
+        sessions.put(session.getId(), session);
+        // pierwszy tick mógł paść, zanim sesja trafiła do mapy - wtedy close w tick() jej nie znalazł
+        if (task.isDone()) close(session.getId());
+        return session;
+    }
+
+    private void tick(GameSession session) {
+        try {
+            session.getSimulation().tick();
+        } catch (RuntimeException e) {
+            System.out.println("[SESJA " + session.getId() + "] Błąd ticku, sesja zamknięta: " + e);
+            close(session.getId());
+            // wyjątek kończy zadanie okresowe także wtedy, gdy sesja nie miała jeszcze zapisanego zadania
+            throw e;
+        }
+    }
+
+    public GameSession get(int id) {
+        return sessions.get(id);
+    }
+
+    public Collection<GameSession> getSessions() {
+        return sessions.values();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public void close(int id) {
+        GameSession session = sessions.remove(id);
+        if (session == null) return;
+        ScheduledFuture<?> task = session.getTask();
+        if (task != null) task.cancel(false);
+        session.getGameManager().getEventBus().shutdown();
+    }
+
+    public void shutdown() {
+        for (Integer id : sessions.keySet()) close(id);
+        scheduler.shutdown();
+    }
+}
@@ -1,10 +1,16 @@
 import java.awt.Graphics2D;
 
 interface ITower {
-    void update();
+    // gm - gra (sesja), do której należy wieża; sama wieża nie trzyma referencji do gry
+    void update(GameManager gm);
+    // Faza 1: wybór celu bez zmiany stanu; slot wroga w EnemyColumns albo -1 (brak celu / cooldown)
+    int aim(GameManager gm, long now);
+    // Faza 2: strzał w wybrany cel
+    void fire(GameManager gm, int enemySlot, long now);
     void draw(Graphics2D g);
     int getDamage();
     int getRange();
     int getX();
     int getY();
+    TowerStats getStats();
 }
\ No newline at end of file
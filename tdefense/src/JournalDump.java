@@ -0,0 +1,30 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Narzędzie offline: zamienia binarny dziennik zdarzeń (.tdj) na tekst.
+//   java JournalDump logs/dziennik-....tdj [wyjście.txt]
+public class JournalDump {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Użycie: java JournalDump <dziennik.tdj> [wyjście.txt]");
+            return;
+        }
+
+        PrintStream out = args.length > 1
+                ? new PrintStream(Files.newOutputStream(Paths.get(args[1])), false, StandardCharsets.UTF_8)
+                : System.out;
+        int[] count = {0};
+        try {
+            EventJournal.read(Paths.get(args[0]), (wallMillis, tick, type, value) -> {
+                out.printf("%8d %s%n", tick, LoggerObserver.formatEntry(wallMillis, type, value));
+                count[0]++;
+            });
+        } finally {
+            if (out != System.out) out.close();
+        }
+        System.err.println("Zdarzeń: " + count[0]);
+    }
+}
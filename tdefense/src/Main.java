@@ -1,14 +1,24 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 public class Main extends JFrame {
     private StatisticsObserver statsObserver;
     private SoundObserver soundObserver;
     private AchievementObserver achievementObserver;
     private LoggerObserver loggerObserver;
+    private JournalObserver journalObserver;
     private GamePanel panel;
     private GraphicsDevice device;
+    private static final Path QUICK_SAVE = Paths.get("saves", "szybki-zapis.tds");
+    private static final int REWIND_HISTORY_SECONDS = 15;
+    private static final int REWIND_BUFFER_BYTES = 32 * 1024 * 1024;
+    private static final int REWIND_STEP_SECONDS = 10;
 
     public Main() {
         EnemyCache.loadCache();
@@ -21,9 +31,10 @@ public class Main extends JFrame {
         loggerObserver = new LoggerObserver();
 
         gm.addObserver(statsObserver);
-        gm.addObserver(soundObserver);
+        gm.addObserver(soundObserver, DeliveryMode.ASYNC);
         gm.addObserver(achievementObserver);
-        gm.addObserver(loggerObserver);
+        gm.addObserver(loggerObserver, DeliveryMode.ASYNC);
+        gm.setBatchedEvents(true);
 
         device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
 
@@ -35,6 +46,9 @@ public class Main extends JFrame {
         panel = new GamePanel();
         panel.setObservers(statsObserver, loggerObserver, achievementObserver);
         gm.addObserver(panel);
+        openJournal();
+        openReplay();
+        panel.getSimulation().enableRewind(REWIND_HISTORY_SECONDS, REWIND_BUFFER_BYTES);
 
         this.add(panel);
 
@@ -45,6 +59,7 @@ public class Main extends JFrame {
         }
 
         this.setVisible(true);
+        panel.enableActiveRendering(this, device.getDisplayMode().getRefreshRate());
         new Thread(panel).start();
 
         setupKeyBindings();
@@ -57,11 +72,47 @@ public class Main extends JFrame {
         System.out.println("║ L   - Pokaż logi (GRAFICZNIE)         ║");
         System.out.println("║ M   - Włącz/Wyłącz dźwięk             ║");
         System.out.println("║ A   - Pokaż osiągnięcia (GRAFICZNIE)  ║");
+        System.out.println("║ F5  - Szybki zapis, F9 - wczytanie    ║");
+        System.out.println("║ R   - Cofnij grę o 10 sekund          ║");
         System.out.println("║                                        ║");
         System.out.println("║ 🏆 NOWOŚĆ: Fala 11 = ZIMOWA MAPA!     ║");
         System.out.println("╚═══════════════════════════════════════╝\n");
     }
 
+    // Binarny dziennik sesji w katalogu logs/, odczyt: java JournalDump <plik>
+    private void openJournal() {
+        GameManager gm = GameManager.getInstance();
+        String name = "dziennik-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".tdj";
+        Path file = Paths.get("logs", name);
+        try {
+            journalObserver = new JournalObserver(EventJournal.create(file), panel.getSimulation().getClock()::getTick);
+        } catch (IOException e) {
+            System.out.println("[LOG] Nie udało się otworzyć dziennika: " + e.getMessage());
+            return;
+        }
+        gm.addObserver(journalObserver);
+        System.out.println("[LOG] Dziennik zdarzeń: " + file);
+        // szyna dostarcza resztę kolejki obserwatorom ASYNC, potem dziennik zapisuje bufor na dysk
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            gm.getEventBus().shutdown();
+            journalObserver.close();
+        }, "journal-close"));
+    }
+
+    // Nagranie akcji gracza w katalogu logs/, odtworzenie: java ReplayPlayer <plik>
+    private void openReplay() {
+        Simulation simulation = panel.getSimulation();
+        Path file = Paths.get("logs", "powtorka-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".tdr");
+        try {
+            simulation.startRecording(ReplayLog.create(file));
+        } catch (IOException e) {
+            System.out.println("[POWTÓRKA] Nie udało się otworzyć nagrania: " + e.getMessage());
+            return;
+        }
+        System.out.println("[POWTÓRKA] Nagranie: " + file);
+        Runtime.getRuntime().addShutdownHook(new Thread(simulation::stopRecording, "replay-close"));
+    }
+
     private void setupKeyBindings() {
         KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(e -> {
             if (e.getID() == KeyEvent.KEY_PRESSED) {
@@ -82,12 +133,60 @@ public class Main extends JFrame {
                     case KeyEvent.VK_A:
                         panel.toggleAchievements();
                         break;
+                    case KeyEvent.VK_F5:
+                        saveGame();
+                        break;
+                    case KeyEvent.VK_F9:
+                        loadGame();
+                        break;
+                    case KeyEvent.VK_R:
+                        rewindGame();
+                        break;
                 }
             }
             return false;
         });
     }
 
+    // Szybki zapis / odczyt - wykonywane przez wątek gry na początku ticku
+    private void saveGame() {
+        Simulation simulation = panel.getSimulation();
+        simulation.submit(() -> {
+            try {
+                simulation.saveGame(QUICK_SAVE);
+                System.out.println("[ZAPIS] Gra zapisana: " + QUICK_SAVE);
+            } catch (IOException e) {
+                System.out.println("[ZAPIS] Błąd zapisu: " + e.getMessage());
+            }
+        });
+    }
+
+    private void loadGame() {
+        Simulation simulation = panel.getSimulation();
+        simulation.submit(() -> {
+            try {
+                simulation.loadGame(QUICK_SAVE);
+                System.out.println("[ZAPIS] Gra wczytana: " + QUICK_SAVE);
+            } catch (IOException e) {
+                System.out.println("[ZAPIS] Błąd odczytu: " + e.getMessage());
+            }
+        });
+    }
+
+    // Cofnięcie o REWIND_STEP_SECONDS z historii w pamięci
+    private void rewindGame() {
+        Simulation simulation = panel.getSimulation();
+        simulation.submit(() -> {
+            try {
+                long tick = simulation.rewind(REWIND_STEP_SECONDS);
+                if (tick < 0) System.out.println("[COFANIE] Brak historii do cofnięcia");
+                else System.out.println("[COFANIE] Powrót do ticku " + tick);
+            } catch (IOException e) {
+                System.out.println("[COFANIE] Błąd: " + e.getMessage());
+            }
+        });
+    }
+
     private void exitFullscreen() {
         if (device.isFullScreenSupported() && device.getFullScreenWindow() == this) {
             device.setFullScreenWindow(null);
@@ -96,19 +195,13 @@ public class Main extends JFrame {
 
     private class AchievementObserverWithUI extends AchievementObserver {
         @Override
-        public void onGameEvent(GameEvent event) {
-            super.onGameEvent(event);
+        public void onGameEvent(GameEventType type, int value) {
+            super.onGameEvent(type, value);
 
-            switch (event.type) {
+            switch (type) {
                 case ENEMY_KILLED:
                     int enemyCount = getEnemiesKilledCount();
-                    if (enemyCount == 10) {
-                        panel.showAchievement("First Blood", "Zabij 10 wrogów");
-                    } else if (enemyCount == 50) {
-                        panel.showAchievement("Slayer", "Zabij 50 wrogów");
-                    } else if (enemyCount == 100) {
-                        panel.showAchievement("Massacre", "Zabij 100 wrogów");
-                    }
+                    showKillAchievements(enemyCount - 1, enemyCount);
                     break;
 
                 case TOWER_BUILT:
@@ -121,29 +214,43 @@ public class Main extends JFrame {
                     break;
 
                 case WAVE_COMPLETED:
-                    if (event.data instanceof Integer) {
-                        int wave = (Integer) event.data;
-                        if (wave == 5) {
-                            panel.showAchievement("Survivor", "Przetrwaj 5 fal");
-                        } else if (wave == 10) {
-                            panel.showAchievement("Veteran", "Przetrwaj 10 fal");
-                            panel.showAchievement("Winter Awaits", "Zimowa mapa w następnej fali!");
-                        } else if (wave == 20) {
-                            panel.showAchievement("Legend", "Przetrwaj 20 fal");
-                        }
+                    if (value == 5) {
+                        panel.showAchievement("Survivor", "Przetrwaj 5 fal");
+                    } else if (value == 10) {
+                        panel.showAchievement("Veteran", "Przetrwaj 10 fal");
+                        panel.showAchievement("Winter Awaits", "Zimowa mapa w następnej fali!");
+                    } else if (value == 20) {
+                        panel.showAchievement("Legend", "Przetrwaj 20 fal");
                     }
                     break;
 
                 case WAVE_STARTED:
-                    if (event.data instanceof Integer) {
-                        int wave = (Integer) event.data;
-                        if (wave == 11 && unlock("winter_warrior")) {
-                            panel.showAchievement("Winter Warrior", "Osiągnij falę zimową!");
-                        }
+                    if (value == 11 && unlock("winter_warrior")) {
+                        panel.showAchievement("Winter Warrior", "Osiągnij falę zimową!");
                     }
                     break;
             }
         }
+
+        @Override
+        public void onTickEvents(TickEventBatch batch) {
+            int before = getEnemiesKilledCount();
+            super.onTickEvents(batch);
+            showKillAchievements(before, getEnemiesKilledCount());
+        }
+
+        // w trybie wsadowym licznik może przeskoczyć próg o kilka zabójstw naraz
+        private void showKillAchievements(int before, int after) {
+            if (before < 10 && after >= 10) {
+                panel.showAchievement("First Blood", "Zabij 10 wrogów");
+            }
+            if (before < 50 && after >= 50) {
+                panel.showAchievement("Slayer", "Zabij 50 wrogów");
+            }
+            if (before < 100 && after >= 100) {
+                panel.showAchievement("Massacre", "Zabij 100 wrogów");
+            }
+        }
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,23 @@
+import java.util.Arrays;
+
+// Prosta pula obiektów do ponownego użycia (wrogowie, pociski) - bez alokacji w stanie ustalonym
+class ObjectPool<T> {
+    private Object[] free = new Object[64];
+    private int count = 0;
+
+    // null gdy pula jest pusta - wtedy wołający tworzy nowy obiekt
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        if (count == 0) return null;
+        T item = (T) free[--count];
+        free[count] = null;
+        return item;
+    }
+
+    public void recycle(T item) {
+        if (count == free.length) free = Arrays.copyOf(free, count * 2);
+        free[count++] = item;
+    }
+
+    public int size() { return count; }
+}
@@ -0,0 +1,41 @@
+import java.awt.Point;
+
+// Ścieżka wrogów z policzonymi raz długościami odcinków.
+// Wróg przesuwa tylko dystans wzdłuż ścieżki, pozycja to odczyt z tabeli - bez sqrt w każdym ticku.
+class PathTable {
+    private final double[] startX, startY, dirX, dirY;
+    private final double[] cumulative;   // dystans od początku ścieżki do początku odcinka
+    private final int segments;
+    public final double totalLength;
+
+    public PathTable(Point[] points) {
+        segments = points.length - 1;
+        startX = new double[segments];
+        startY = new double[segments];
+        dirX = new double[segments];
+        dirY = new double[segments];
+        cumulative = new double[segments + 1];
+
+        for (int i = 0; i < segments; i++) {
+            double dx = points[i + 1].x - points[i].x, dy = points[i + 1].y - points[i].y;
+            double len = Math.sqrt(dx*dx + dy*dy);
+            startX[i] = points[i].x;
+            startY[i] = points[i].y;
+            if (len > 0) { dirX[i] = dx / len; dirY[i] = dy / len; }
+            cumulative[i + 1] = cumulative[i] + len;
+        }
+        totalLength = cumulative[segments];
+    }
+
+    public int segments() { return segments; }
+
+    // Odcinek zawierający dystans d, szukany od odcinka hint (wróg nigdy się nie cofa)
+    public int segmentAt(int hint, double d) {
+        int s = hint;
+        while (s < segments - 1 && d >= cumulative[s + 1]) s++;
+        return s;
+    }
+
+    public double xAt(int segment, double d) { return startX[segment] + dirX[segment] * (d - cumulative[segment]); }
+    public double yAt(int segment, double d) { return startY[segment] + dirY[segment] * (d - cumulative[segment]); }
+}
@@ -1,20 +1,43 @@
-import java.awt.Color;
-import java.awt.Graphics2D;
-
 class Projectile {
     public double x, y;
-    private Enemy target;
+    private double prevX, prevY;
+    // cel przez uchwyt z generacją, a nie referencję - martwy wróg nie jest trzymany w pamięci
+    private EnemyColumns targets;
+    private long targetHandle;
     private int damage;
     public boolean active = true;
+
     public Projectile(double x, double y, Enemy target, int damage) {
-        this.x = x; this.y = y; this.target = target; this.damage = damage;
+        init(x, y, target.getColumns(), target.handle(), damage);
+    }
+
+    public Projectile(double x, double y, EnemyColumns targets, long targetHandle, int damage) {
+        init(x, y, targets, targetHandle, damage);
     }
+
+    // Ponowne użycie obiektu z puli
+    public void init(double x, double y, EnemyColumns targets, long targetHandle, int damage) {
+        this.x = x; this.y = y; this.damage = damage;
+        this.prevX = x; this.prevY = y;
+        this.targets = targets; this.targetHandle = targetHandle;
+        this.active = true;
+    }
+
     public void update() {
-        if (!target.alive || target.finished) { active = false; return; }
-        double dx = target.x - x, dy = target.y - y;
+        prevX = x; prevY = y;
+        int s = targets != null ? targets.resolve(targetHandle) : -1;
+        if (s < 0 || !targets.alive[s] || targets.finished[s]) { active = false; return; }
+        double dx = targets.x[s] - x, dy = targets.y[s] - y;
         double dist = Math.sqrt(dx*dx + dy*dy);
-        if (dist < 10) { target.hp -= damage; if (target.hp <= 0) target.alive = false; active = false; }
+        if (dist < 10) { targets.damage(s, damage); active = false; }
         else { x += (dx/dist)*10; y += (dy/dist)*10; }
     }
-    public void draw(Graphics2D g) { g.setColor(Color.YELLOW); g.fillOval((int)x - 3, (int)y - 3, 6, 6); }
+    // Stan dla zapisu gry
+    public long getTargetHandle() { return targets != null ? targetHandle : EnemyColumns.NO_HANDLE; }
+    public int getDamage() { return damage; }
+    public void setPrev(double prevX, double prevY) { this.prevX = prevX; this.prevY = prevY; }
+
+    // Pozycja z poprzedniego ticku - do interpolacji przy rysowaniu
+    public double getPrevX() { return prevX; }
+    public double getPrevY() { return prevY; }
 }
\ No newline at end of file
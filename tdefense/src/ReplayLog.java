@@ -0,0 +1,195 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Nagranie rozgrywki: każda przyjęta akcja gracza z numerem ticku, na którego początku ją wykonano.
+// Razem z ziarnem gry (zapisanym w akcji START) wystarcza do odtworzenia partii tick w tick (ReplayPlayer).
+// Nagłówek: magic, wersja, czas nagrania (epoch ms).
+// Rekord: odstęp w tickach od poprzedniego rekordu (varint), kod akcji (bajt), dane akcji.
+class ReplayLog implements Closeable {
+    static final int MAGIC = 0x54445231;   // "TDR1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    static final byte START = 1;     // ziarno (long)
+    static final byte WAVE = 2;
+    static final byte PLACE = 3;     // typ wieży (długość + UTF-8), kolumna, wiersz (bajty)
+    static final byte UPGRADE = 4;   // indeks wieży (varint), rodzaj ulepszenia (bajt)
+    static final byte END = 5;       // koniec nagrania
+
+    // Jedna akcja z nagrania
+    static final class Entry {
+        final long tick;
+        final byte op;
+        final long seed;
+        final String towerType;
+        final int a, b;
+
+        Entry(long tick, byte op, long seed, String towerType, int a, int b) {
+            this.tick = tick;
+            this.op = op;
+            this.seed = seed;
+            this.towerType = towerType;
+            this.a = a;
+            this.b = b;
+        }
+
+        // Ta sama metoda Simulation, którą wywołała gra w trakcie nagrania
+        void applyTo(Simulation sim) {
+            switch (op) {
+                case START: sim.startGame(seed); break;
+                case WAVE: sim.startWave(); break;
+                case PLACE: sim.placeTower(towerType, a, b); break;
+                case UPGRADE: sim.upgradeTower(a, b); break;
+                default: break;
+            }
+        }
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+    private long lastTick = 0;
+
+    private ReplayLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static ReplayLog create(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        ReplayLog log = new ReplayLog(channel);
+        log.buffer.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis());
+        log.writeBuffer();
+        return log;
+    }
+
+    public synchronized void startGame(long tick, long seed) throws IOException {
+        begin(tick, START, 8);
+        buffer.putLong(seed);
+    }
+
+    public synchronized void startWave(long tick) throws IOException {
+        begin(tick, WAVE, 0);
+    }
+
+    public synchronized void placeTower(long tick, String type, int col, int row) throws IOException {
+        byte[] name = type.getBytes(StandardCharsets.UTF_8);
+        begin(tick, PLACE, 1 + name.length + 2);
+        buffer.put((byte) name.length).put(name).put((byte) col).put((byte) row);
+    }
+
+    public synchronized void upgradeTower(long tick, int towerIndex, int upgrade) throws IOException {
+        begin(tick, UPGRADE, 5 + 1);
+        putVarLong(towerIndex);
+        buffer.put((byte) upgrade);
+    }
+
+    // Zamyka nagranie rekordem END - odtwarzanie kończy się na tym samym ticku co gra
+    public synchronized void close(long tick) throws IOException {
+        if (!channel.isOpen()) return;
+        begin(tick, END, 0);
+        close();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) return;
+        writeBuffer();
+        channel.close();
+    }
+
+    private void begin(long tick, byte op, int payloadBytes) throws IOException {
+        if (!channel.isOpen()) throw new IOException("Nagranie jest zamknięte");
+        if (buffer.remaining() < 10 + 1 + payloadBytes) writeBuffer();
+        putVarLong(tick - lastTick);
+        lastTick = tick;
+        buffer.put(op);
+    }
+
+    private void putVarLong(long v) {
+        while ((v & ~0x7FL) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    // Całe nagranie (pliki są małe); ucięty ostatni rekord (np. po awarii) jest pomijany
+    public static List<Entry> read(Path file) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = ByteBuffer.allocate((int) channel.size());
+            while (in.hasRemaining() && channel.read(in) >= 0) { }
+            in.flip();
+        }
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new IOException("To nie jest nagranie rozgrywki: " + file);
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Nieobsługiwana wersja nagrania: " + version);
+        }
+        in.getLong();
+
+        List<Entry> entries = new ArrayList<>();
+        long tick = 0;
+        try {
+            while (in.hasRemaining()) {
+                tick += getVarLong(in);
+                byte op = in.get();
+                switch (op) {
+                    case START:
+                        entries.add(new Entry(tick, op, in.getLong(), null, 0, 0));
+                        break;
+                    case WAVE:
+                    case END:
+                        entries.add(new Entry(tick, op, 0, null, 0, 0));
+                        break;
+                    case PLACE: {
+                        byte[] name = new byte[in.get() & 0xFF];
+                        in.get(name);
+                        int col = in.get(), row = in.get();
+                        entries.add(new Entry(tick, op, 0, new String(name, StandardCharsets.UTF_8), col, row));
+                        break;
+                    }
+                    case UPGRADE: {
+                        int index = (int) getVarLong(in);
+                        entries.add(new Entry(tick, op, 0, null, index, in.get()));
+                        break;
+                    }
+                    default:
+                        throw new IOException("Uszkodzony rekord nagrania (kod " + op + ")");
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            // koniec pliku w środku rekordu
+        }
+        return entries;
+    }
+
+    private static long getVarLong(ByteBuffer in) {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+    }
+}
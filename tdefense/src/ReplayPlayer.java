@@ -0,0 +1,78 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Narzędzie offline: odtwarza nagranie (.tdr) bez okna, tak szybko, jak pozwala procesor.
+// Akcje trafiają do Simulation na początku tych samych ticków co w oryginalnej grze,
+// więc stan po każdym ticku jest ten sam - przydatne do odtwarzania zgłoszonych spowolnień i profilowania.
+//   java ReplayPlayer logs/powtorka-....tdr
+public class ReplayPlayer {
+    private static final int SLOWEST = 5;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Użycie: java ReplayPlayer <nagranie.tdr>");
+            return;
+        }
+        List<ReplayLog.Entry> entries = ReplayLog.read(Paths.get(args[0]));
+        if (entries.isEmpty()) {
+            System.out.println("Nagranie jest puste.");
+            return;
+        }
+
+        EnemyCache.loadCache();
+
+        Simulation sim = new Simulation(new GameManager());
+        sim.setQuiet(true);
+        GameManager gm = sim.getGameManager();
+        TickClock clock = sim.getClock();
+        clock.setTick(entries.get(0).tick);
+
+        long[] slowTicks = new long[SLOWEST];
+        long[] slowNanos = new long[SLOWEST];
+        int[] slowWaves = new int[SLOWEST];
+        long ticks = 0;
+        int next = 0;
+        long start = System.nanoTime();
+
+        while (true) {
+            long tick = clock.getTick();
+            boolean ended = false;
+            while (next < entries.size() && entries.get(next).tick <= tick) {
+                ReplayLog.Entry e = entries.get(next++);
+                if (e.op == ReplayLog.END) ended = true;
+                else e.applyTo(sim);
+            }
+            // bez rekordu END (np. po awarii) - do końca akcji i bieżącej fali
+            if (ended || (next == entries.size() && gm.state != GameState.WAVE_IN_PROGRESS)) break;
+
+            long t0 = System.nanoTime();
+            sim.tick();
+            long dt = System.nanoTime() - t0;
+            ticks++;
+
+            // najwolniejsze ticki - wstawianie do krótkiej posortowanej listy
+            if (dt > slowNanos[SLOWEST - 1]) {
+                int i = SLOWEST - 1;
+                for (; i > 0 && slowNanos[i - 1] < dt; i--) {
+                    slowNanos[i] = slowNanos[i - 1];
+                    slowTicks[i] = slowTicks[i - 1];
+                    slowWaves[i] = slowWaves[i - 1];
+                }
+                slowNanos[i] = dt;
+                slowTicks[i] = tick;
+                slowWaves[i] = gm.wave;
+            }
+        }
+        double ms = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("Akcji: %d, ticków: %d (%.1f s gry), czas: %.1f ms, %.0f ticków/s%n",
+                entries.size(), ticks, ticks / (double) Simulation.TICKS_PER_SECOND, ms, ticks / (ms / 1000));
+        System.out.printf("Stan końcowy: %s, fala %d, życia %d, pieniądze %d$, ziarno %d%n",
+                gm.state, gm.wave, gm.lives, gm.money, gm.getSeed());
+        System.out.println("Najwolniejsze ticki:");
+        for (int i = 0; i < SLOWEST && slowNanos[i] > 0; i++) {
+            System.out.printf("  tick %d (fala %d): %.3f ms%n", slowTicks[i], slowWaves[i], slowNanos[i] / 1e6);
+        }
+    }
+}
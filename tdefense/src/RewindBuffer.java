@@ -0,0 +1,242 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+// Krocząca historia stanu gry - migawka (format SaveGame) po każdym ticku, poza stertą.
+// Co KEYFRAME_INTERVAL ticków pełna migawka (klatka kluczowa), pomiędzy nimi tylko różnice względem niej:
+// przebiegi bajtów takich jak w klatce kluczowej są pomijane, pozostałe zapisywane dosłownie.
+// Dane leżą w jednym, z góry zaalokowanym buforze direct używanym jak pierścień - najstarsze migawki
+// są nadpisywane, a bufory robocze są wielokrotnego użytku, więc zapis co tick nie obciąża GC.
+// Przywrócenie ticku: kopia klatki kluczowej + naniesienie różnic + SaveGame.decode.
+// Tylko z wątku gry (Simulation.tick / komendy).
+class RewindBuffer {
+    static final int KEYFRAME_INTERVAL = Simulation.TICKS_PER_SECOND;
+    private static final int MIN_EQUAL_RUN = 8;   // krótsze przebiegi zgodnych bajtów zostają w literale
+
+    private final ByteBuffer ring;
+    private final int maxEntries;
+    // migawki numerowane rosnąco (seq); indeks w tablicach: seq % maxEntries
+    private final long[] ticks;
+    private final int[] offsets;
+    private final int[] lengths;    // bajty w pierścieniu
+    private final int[] sizes;      // rozmiar pełnej migawki po odtworzeniu
+    private final long[] keyOf;     // seq klatki kluczowej (dla klatki kluczowej - ona sama)
+    private long headSeq = 0, nextSeq = 0;
+    private long keySeq = -1;
+    private int writePos = 0;
+
+    private final List<String> names = new ArrayList<>();
+    private ByteBuffer current = ByteBuffer.allocateDirect(16 * 1024);
+    private ByteBuffer delta = ByteBuffer.allocateDirect(32 * 1024);
+    private final ByteBuffer view;
+    private int readPos;
+    private boolean oversizeReported = false;
+
+    // seconds - ile sekund historii ma się zmieścić; bytes - rozmiar pierścienia
+    public RewindBuffer(int seconds, int bytes) {
+        this.maxEntries = seconds * Simulation.TICKS_PER_SECOND + KEYFRAME_INTERVAL;
+        this.ring = ByteBuffer.allocateDirect(bytes);
+        this.view = ring.duplicate();
+        this.ticks = new long[maxEntries];
+        this.offsets = new int[maxEntries];
+        this.lengths = new int[maxEntries];
+        this.sizes = new int[maxEntries];
+        this.keyOf = new long[maxEntries];
+    }
+
+    public int size() { return (int) (nextSeq - headSeq); }
+    public int capacityBytes() { return ring.capacity(); }
+
+    public long oldestTick() { return size() > 0 ? ticks[index(headSeq)] : -1; }
+    public long newestTick() { return size() > 0 ? ticks[index(nextSeq - 1)] : -1; }
+
+    // Bajty zajęte przez przechowywane migawki
+    public int usedBytes() {
+        int used = 0;
+        for (long s = headSeq; s < nextSeq; s++) used += lengths[index(s)];
+        return used;
+    }
+
+    public void clear() {
+        headSeq = nextSeq = 0;
+        keySeq = -1;
+        writePos = 0;
+    }
+
+    // Migawka stanu po zakończonym ticku
+    public void capture(Simulation sim) {
+        current = SaveGame.encode(sim, current, names);
+        int size = current.limit();
+        long tick = sim.getClock().getTick();
+
+        boolean key = keySeq < headSeq || nextSeq - keySeq >= KEYFRAME_INTERVAL;
+        if (!key) {
+            encodeDelta(size);
+            // duża zmiana (np. nowa fala) - taniej zacząć od nowej klatki kluczowej
+            if (delta.limit() * 2 > size) key = true;
+        }
+        ByteBuffer src = key ? current : delta;
+        int length = src.limit();
+        if (!reserve(sim, length)) return;
+        // zwalnianie miejsca mogło usunąć klatkę kluczową tej różnicy
+        if (!key && keySeq < headSeq) {
+            key = true;
+            src = current;
+            length = size;
+            if (!reserve(sim, length)) return;
+        }
+
+        ring.put(writePos, src, 0, length);
+        long seq = nextSeq++;
+        int i = index(seq);
+        ticks[i] = tick;
+        offsets[i] = writePos;
+        lengths[i] = length;
+        sizes[i] = size;
+        if (key) keySeq = seq;
+        keyOf[i] = keySeq;
+        writePos += length;
+    }
+
+    // Przywraca najnowszą migawkę z tickiem <= tick; historia po niej jest odrzucana.
+    // Zwraca przywrócony tick albo -1, gdy bufor jest pusty.
+    public long restore(Simulation sim, long tick) throws IOException {
+        if (size() == 0) return -1;
+        long seq = nextSeq - 1;
+        while (seq > headSeq && ticks[index(seq)] > tick) seq--;
+
+        int i = index(seq);
+        ByteBuffer state;
+        if (keyOf[i] == seq) {
+            view.limit(offsets[i] + lengths[i]).position(offsets[i]);
+            state = view;
+        } else {
+            state = applyDelta(i);
+        }
+        SaveGame.decode(sim, state);
+
+        nextSeq = seq + 1;
+        keySeq = keyOf[i];
+        writePos = offsets[i] + lengths[i];
+        return ticks[i];
+    }
+
+    // Cofnięcie o podaną liczbę sekund od ostatniej migawki (albo do najstarszej)
+    public long rewind(Simulation sim, int seconds) throws IOException {
+        return restore(sim, newestTick() - (long) seconds * Simulation.TICKS_PER_SECOND);
+    }
+
+    // Różnice bieżącej migawki względem klatki kluczowej, do bufora delta:
+    // rozmiar (varint), potem pary [zgodne bajty (varint), literał (varint + bajty)]
+    private void encodeDelta(int size) {
+        int bound = 2 * size + 16;
+        if (delta.capacity() < bound) delta = ByteBuffer.allocateDirect(Integer.highestOneBit(bound) << 1);
+        delta.clear();
+        putVarInt(size);
+
+        int k = index(keySeq);
+        int keyOff = offsets[k];
+        int common = Math.min(size, sizes[k]);
+        int i = 0;
+        while (i < size) {
+            int start = i;
+            while (i + 8 <= common && current.getLong(i) == ring.getLong(keyOff + i)) i += 8;
+            while (i < common && current.get(i) == ring.get(keyOff + i)) i++;
+            putVarInt(i - start);
+            if (i == size) {
+                putVarInt(0);
+                break;
+            }
+
+            // literał - do pierwszego dłuższego przebiegu zgodnych bajtów
+            int literal = i, equal = 0;
+            while (i < size && equal < MIN_EQUAL_RUN) {
+                if (i < common && current.get(i) == ring.get(keyOff + i)) equal++;
+                else equal = 0;
+                i++;
+            }
+            if (equal == MIN_EQUAL_RUN) i -= MIN_EQUAL_RUN;
+            putVarInt(i - literal);
+            delta.put(delta.position(), current, literal, i - literal);
+            delta.position(delta.position() + i - literal);
+        }
+        delta.flip();
+    }
+
+    // Pełna migawka z klatki kluczowej i różnic, w buforze current
+    private ByteBuffer applyDelta(int i) {
+        int k = index(keyOf[i]);
+        int keyOff = offsets[k];
+        readPos = offsets[i];
+        int size = getVarInt();
+        if (current.capacity() < size) current = ByteBuffer.allocateDirect(Integer.highestOneBit(size) << 1);
+        current.clear();
+
+        int pos = 0;
+        while (pos < size) {
+            int same = getVarInt();
+            current.put(pos, ring, keyOff + pos, same);
+            pos += same;
+            int literal = getVarInt();
+            current.put(pos, ring, readPos, literal);
+            readPos += literal;
+            pos += literal;
+        }
+        current.limit(size).position(0);
+        return current;
+    }
+
+    // Miejsce na length bajtów od writePos (z zawinięciem na początek pierścienia);
+    // najstarsze migawki są usuwane, a historia zaczyna się zawsze od klatki kluczowej
+    private boolean reserve(Simulation sim, int length) {
+        if (length > ring.capacity()) {
+            if (!oversizeReported) {
+                sim.log("[COFANIE] Migawka (" + length + " B) nie mieści się w buforze - historia wyczyszczona");
+                oversizeReported = true;
+            }
+            clear();
+            return false;
+        }
+        if (size() == 0) writePos = 0;
+        if (writePos + length > ring.capacity()) {
+            // za writePos leżą tylko migawki starsze od tych na początku pierścienia
+            while (size() > 0 && offsets[index(headSeq)] >= writePos) headSeq++;
+            writePos = 0;
+        }
+
+        while (size() > 0 && (size() >= maxEntries || overlaps(headSeq, length))) {
+            headSeq++;
+        }
+        while (size() > 0 && keyOf[index(headSeq)] != headSeq) {
+            headSeq++;
+        }
+        return true;
+    }
+
+    private boolean overlaps(long seq, int length) {
+        int i = index(seq);
+        return offsets[i] < writePos + length && offsets[i] + lengths[i] > writePos;
+    }
+
+    private int index(long seq) {
+        return (int) (seq % maxEntries);
+    }
+
+    private void putVarInt(int v) {
+        while ((v & ~0x7F) != 0) {
+            delta.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        delta.put((byte) v);
+    }
+
+    private int getVarInt() {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = ring.get(readPos++);
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Zapis i odczyt pełnego stanu gry w zwartym formacie binarnym (z wersją).
+// Po odczycie kolejne ticki przebiegają dokładnie tak samo jak w grze, z której zrobiono zapis:
+// odtwarzane są zegar, strumienie losowe, postęp fali, sloty i generacje kolumn wrogów, cooldowny wież.
+//
+// Układ (po nagłówku magic + wersja):
+//   tick, stan, pieniądze, życia, fala, ziarna / stan GameRandom, postęp WaveManagera,
+//   mapa zajętości (bity), tablica nazw typów, wieże (typ, pozycja, cooldown, ulepszenia od najstarszego),
+//   układ slotów kolumn wrogów, wrogowie (slot, typ, kolumny), pociski (pozycje, uchwyt celu, obrażenia)
+// Musi być wołany z wątku gry (np. jako komenda Simulation.submit).
+class SaveGame {
+    static final int MAGIC = 0x54445331;   // "TDS1"
+    static final int VERSION = 1;
+
+    // nazwy typów w UTF-8 - zapis co tick (RewindBuffer) nie tworzy nowych tablic
+    private static final Map<String, byte[]> NAME_BYTES = new ConcurrentHashMap<>();
+
+    private SaveGame() {}
+
+    public static void save(Simulation sim, Path file) throws IOException {
+        ByteBuffer data = encode(sim, ByteBuffer.allocate(16 * 1024));
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) channel.write(data);
+        }
+    }
+
+    public static void load(Simulation sim, Path file) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = ByteBuffer.allocate((int) channel.size());
+            while (in.hasRemaining() && channel.read(in) >= 0) { }
+            in.flip();
+        }
+        decode(sim, in);
+    }
+
+    // Stan gry od pozycji 0 bufora; zwraca bufor gotowy do odczytu (większy, jeśli podany był za mały)
+    public static ByteBuffer encode(Simulation sim, ByteBuffer out) {
+        return encode(sim, out, new ArrayList<>());
+    }
+
+    // Wersja bez alokacji przy stałym składzie gry - lista nazw jest czyszczona i używana ponownie
+    static ByteBuffer encode(Simulation sim, ByteBuffer out, List<String> names) {
+        while (true) {
+            out.clear();
+            names.clear();
+            try {
+                write(sim, out, names);
+                out.flip();
+                return out;
+            } catch (BufferOverflowException e) {
+                out = out.isDirect() ? ByteBuffer.allocateDirect(out.capacity() * 2) : ByteBuffer.allocate(out.capacity() * 2);
+            }
+        }
+    }
+
+    private static void write(Simulation sim, ByteBuffer out, List<String> names) {
+        GameManager gm = sim.getGameManager();
+        WaveManager waves = sim.getWaveManager();
+        out.putInt(MAGIC).putInt(VERSION);
+
+        out.putLong(sim.getClock().getTick());
+        out.put((byte) gm.state.ordinal());
+        out.putInt(gm.money).putInt(gm.lives).putInt(gm.wave);
+        GameRandom spawn = gm.getSpawnRandom();
+        out.putLong(gm.getSeed()).putLong(spawn.getSeed()).putLong(spawn.getGamma()).putLong(gm.getVisualSeed());
+        out.putInt(waves.getEnemiesLeftToSpawn()).putInt(waves.getWaveSize())
+           .putLong(waves.getLastSpawnTime()).putLong(waves.getSpawnDelay());
+
+        // mapa zajętości: bit na pole, kolumnami
+        out.put((byte) gm.COLS).put((byte) gm.ROWS);
+        int bits = 0, n = 0;
+        for (int c = 0; c < gm.COLS; c++) {
+            for (int r = 0; r < gm.ROWS; r++) {
+                if (gm.occupiedMap[c][r]) bits |= 1 << n;
+                if (++n == 8) { out.put((byte) bits); bits = 0; n = 0; }
+            }
+        }
+        if (n > 0) out.put((byte) bits);
+
+        // nazwy typów wież i wrogów raz, dalej tylko indeksy
+        EntityStore<ITower> towers = gm.towers;
+        EntityStore<Enemy> enemies = gm.enemies;
+        for (int i = 0; i < towers.size(); i++) nameIndex(names, core(towers.get(i)).typeId);
+        for (int i = 0; i < enemies.size(); i++) nameIndex(names, enemies.get(i).typeId);
+        out.put((byte) names.size());
+        for (int i = 0; i < names.size(); i++) {
+            byte[] bytes = NAME_BYTES.computeIfAbsent(names.get(i), SaveGame::utf8);
+            out.put((byte) bytes.length).put(bytes);
+        }
+
+        out.putInt(towers.size());
+        for (int i = 0; i < towers.size(); i++) {
+            ITower t = towers.get(i);
+            Tower core = core(t);
+            out.put((byte) names.indexOf(core.typeId));
+            out.putShort((short) core.getX()).putShort((short) core.getY());
+            out.putLong(core.getLastShotTime());
+            int upgrades = core.getStats().getUpgradeCount();
+            out.putShort((short) upgrades);
+            // od zewnętrznego dekoratora do rdzenia, zapisywane od najstarszego ulepszenia
+            int end = out.position() + upgrades;
+            int pos = end;
+            for (ITower d = t; d instanceof TowerDecorator; d = ((TowerDecorator) d).getWrappedTower()) {
+                out.put(--pos, (byte) ((TowerDecorator) d).getUpgradeType());
+            }
+            out.position(end);
+        }
+
+        EnemyColumns data = gm.enemyData;
+        int highWater = data.highWater();
+        out.putInt(highWater);
+        for (int s = 0; s < highWater; s++) out.putInt(data.generation(s));
+        out.putInt(data.freeCount());
+        for (int i = 0; i < data.freeCount(); i++) out.putInt(data.freeSlot(i));
+
+        out.putInt(enemies.size());
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy e = enemies.get(i);
+            int s = e.getSlot();
+            out.putInt(s);
+            out.put((byte) names.indexOf(e.typeId));
+            out.putDouble(data.x[s]).putDouble(data.y[s]).putDouble(data.prevX[s]).putDouble(data.prevY[s]);
+            out.putDouble(data.speed[s]).putDouble(data.distance[s]);
+            out.putInt(data.hp[s]).putInt(data.maxHp[s]).putInt(data.pathIndex[s]);
+            out.put((byte) ((data.alive[s] ? 1 : 0) | (data.finished[s] ? 2 : 0)));
+        }
+
+        EntityStore<Projectile> projectiles = gm.projectiles;
+        out.putInt(projectiles.size());
+        for (int i = 0; i < projectiles.size(); i++) {
+            Projectile p = projectiles.get(i);
+            out.putDouble(p.x).putDouble(p.y).putDouble(p.getPrevX()).putDouble(p.getPrevY());
+            out.putLong(p.getTargetHandle());
+            out.putInt(p.getDamage());
+        }
+    }
+
+    // Zastępuje stan gry zawartością bufora (od bieżącej pozycji).
+    // Najpierw cały zapis jest czytany i sprawdzany obok gry - uszkodzony zapis nie zmienia niczego.
+    public static void decode(Simulation sim, ByteBuffer in) throws IOException {
+        Loaded loaded;
+        try {
+            loaded = read(sim.getGameManager(), in);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Zapis gry jest ucięty");
+        } catch (RuntimeException e) {
+            throw new IOException("Uszkodzony zapis gry", e);
+        }
+        apply(sim, loaded);
+    }
+
+    // Odczytany zapis przed naniesieniem na grę
+    private static final class Loaded {
+        long tick;
+        GameState state;
+        int money, lives, wave;
+        long seed, visualSeed;
+        GameRandom spawn;
+        int left, waveSize;
+        long lastSpawn, spawnDelay;
+        boolean[][] occupied;
+        ITower[] towers;
+        int highWater, freeCount;
+        int[] generations, free;
+        // wrogowie: slot, typ, kolumny (po 6 double i 3 int na wroga), flagi
+        int[] enemySlots;
+        String[] enemyTypes;
+        double[] enemyDoubles;
+        int[] enemyInts;
+        byte[] enemyFlags;
+        // pociski: pozycje (po 4 double), uchwyt celu, obrażenia
+        double[] projectileDoubles;
+        long[] projectileHandles;
+        int[] projectileDamage;
+    }
+
+    private static Loaded read(GameManager gm, ByteBuffer in) throws IOException {
+        Loaded l = new Loaded();
+        if (in.remaining() < 8 || in.getInt() != MAGIC) throw new IOException("To nie jest zapis gry");
+        int version = in.getInt();
+        if (version != VERSION) throw new IOException("Nieobsługiwana wersja zapisu: " + version);
+
+        l.tick = in.getLong();
+        int state = in.get();
+        if (state < 0 || state >= GameState.values().length) throw new IOException("Uszkodzony zapis (stan " + state + ")");
+        l.state = GameState.values()[state];
+        l.money = in.getInt();
+        l.lives = in.getInt();
+        l.wave = in.getInt();
+        l.seed = in.getLong();
+        l.spawn = GameRandom.restore(in.getLong(), in.getLong());
+        l.visualSeed = in.getLong();
+        l.left = in.getInt();
+        l.waveSize = in.getInt();
+        l.lastSpawn = in.getLong();
+        l.spawnDelay = in.getLong();
+
+        int cols = in.get(), rows = in.get();
+        if (cols != gm.COLS || rows != gm.ROWS) {
+            throw new IOException("Zapis dla innej mapy (" + cols + "x" + rows + ")");
+        }
+        l.occupied = new boolean[cols][rows];
+        int bits = 0, n = 8;
+        for (int c = 0; c < cols; c++) {
+            for (int r = 0; r < rows; r++) {
+                if (n == 8) { bits = in.get(); n = 0; }
+                l.occupied[c][r] = (bits & (1 << n++)) != 0;
+            }
+        }
+
+        String[] names = new String[in.get() & 0xFF];
+        for (int i = 0; i < names.length; i++) {
+            byte[] bytes = new byte[in.get() & 0xFF];
+            in.get(bytes);
+            names[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // wieże powstają poza planszą - do gry trafiają dopiero w apply
+        TowerFactoryManager factories = TowerFactoryManager.getInstance();
+        l.towers = new ITower[count(in, 15, "wież")];
+        for (int i = 0; i < l.towers.length; i++) {
+            String type = name(names, in.get());
+            int x = in.getShort(), y = in.getShort();
+            long lastShot = in.getLong();
+            ITower tower;
+            try {
+                tower = factories.createTower(type, x, y);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Nieznany typ wieży w zapisie: " + type);
+            }
+            ((Tower) tower).setLastShotTime(lastShot);
+            int upgrades = in.getShort();
+            if (upgrades < 0) throw new IOException("Uszkodzony zapis (ulepszenia: " + upgrades + ")");
+            for (int u = 0; u < upgrades; u++) {
+                int upgrade = in.get();
+                try {
+                    tower = TowerDecorator.upgrade(tower, upgrade);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Nieznane ulepszenie w zapisie: " + upgrade);
+                }
+            }
+            l.towers[i] = tower;
+        }
+
+        l.highWater = count(in, 4, "slotów");
+        l.generations = new int[l.highWater];
+        for (int s = 0; s < l.highWater; s++) l.generations[s] = in.getInt();
+        l.freeCount = count(in, 4, "wolnych slotów");
+        if (l.freeCount > l.highWater) throw new IOException("Uszkodzony zapis (wolne sloty: " + l.freeCount + ")");
+        boolean[] taken = new boolean[l.highWater];
+        l.free = new int[l.freeCount];
+        for (int i = 0; i < l.freeCount; i++) l.free[i] = slot(in, taken);
+
+        int enemyCount = count(in, 66, "wrogów");
+        l.enemySlots = new int[enemyCount];
+        l.enemyTypes = new String[enemyCount];
+        l.enemyDoubles = new double[enemyCount * 6];
+        l.enemyInts = new int[enemyCount * 3];
+        l.enemyFlags = new byte[enemyCount];
+        for (int i = 0; i < enemyCount; i++) {
+            l.enemySlots[i] = slot(in, taken);
+            l.enemyTypes[i] = name(names, in.get());
+            for (int k = 0; k < 6; k++) l.enemyDoubles[i * 6 + k] = in.getDouble();
+            for (int k = 0; k < 3; k++) l.enemyInts[i * 3 + k] = in.getInt();
+            int segment = l.enemyInts[i * 3 + 2];
+            if (segment < 0 || segment >= gm.pathTable.segments()) {
+                throw new IOException("Uszkodzony zapis (odcinek ścieżki " + segment + ")");
+            }
+            l.enemyFlags[i] = in.get();
+        }
+
+        int projectileCount = count(in, 44, "pocisków");
+        l.projectileDoubles = new double[projectileCount * 4];
+        l.projectileHandles = new long[projectileCount];
+        l.projectileDamage = new int[projectileCount];
+        for (int i = 0; i < projectileCount; i++) {
+            for (int k = 0; k < 4; k++) l.projectileDoubles[i * 4 + k] = in.getDouble();
+            l.projectileHandles[i] = in.getLong();
+            l.projectileDamage[i] = in.getInt();
+        }
+        return l;
+    }
+
+    // Sprawdzony zapis zastępuje stan gry w jednym kroku
+    private static void apply(Simulation sim, Loaded l) {
+        GameManager gm = sim.getGameManager();
+        gm.clearBoard();
+        sim.getClock().setTick(l.tick);
+        gm.state = l.state;
+        gm.money = l.money;
+        gm.lives = l.lives;
+        gm.wave = l.wave;
+        gm.restoreRandom(l.seed, l.spawn, l.visualSeed);
+        sim.getWaveManager().restore(l.left, l.waveSize, l.lastSpawn, l.spawnDelay);
+        gm.occupiedMap = l.occupied;
+        for (ITower tower : l.towers) gm.towers.add(tower);
+
+        EnemyColumns data = gm.enemyData;
+        data.restoreLayout(l.highWater, l.generations, l.free, l.freeCount);
+        for (int i = 0; i < l.enemySlots.length; i++) {
+            int s = l.enemySlots[i];
+            double[] d = l.enemyDoubles;
+            data.x[s] = d[i * 6];
+            data.y[s] = d[i * 6 + 1];
+            data.prevX[s] = d[i * 6 + 2];
+            data.prevY[s] = d[i * 6 + 3];
+            data.speed[s] = d[i * 6 + 4];
+            data.distance[s] = d[i * 6 + 5];
+            data.hp[s] = l.enemyInts[i * 3];
+            data.maxHp[s] = l.enemyInts[i * 3 + 1];
+            data.pathIndex[s] = l.enemyInts[i * 3 + 2];
+            data.alive[s] = (l.enemyFlags[i] & 1) != 0;
+            data.finished[s] = (l.enemyFlags[i] & 2) != 0;
+            gm.restoreEnemy(l.enemyTypes[i], s);
+        }
+
+        for (int i = 0; i < l.projectileHandles.length; i++) {
+            double[] d = l.projectileDoubles;
+            long handle = l.projectileHandles[i];
+            EnemyColumns targets = handle != EnemyColumns.NO_HANDLE ? data : null;
+            gm.addProjectile(d[i * 4], d[i * 4 + 1], targets, handle, l.projectileDamage[i])
+              .setPrev(d[i * 4 + 2], d[i * 4 + 3]);
+        }
+
+        gm.enemyGrid.rebuild(data);
+        gm.notifyObservers();
+    }
+
+    // Liczność sekcji; każdy element zajmuje co najmniej minBytes, więc więcej niż zostało w buforze to uszkodzenie
+    private static int count(ByteBuffer in, int minBytes, String what) throws IOException {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / minBytes) {
+            throw new IOException("Uszkodzony zapis (liczba " + what + ": " + count + ")");
+        }
+        return count;
+    }
+
+    private static String name(String[] names, byte index) throws IOException {
+        int i = index & 0xFF;
+        if (i >= names.length) throw new IOException("Uszkodzony zapis (indeks nazwy " + i + ")");
+        return names[i];
+    }
+
+    // Slot poniżej granicy kolumn, użyty w zapisie tylko raz (jako wolny albo zajęty przez wroga)
+    private static int slot(ByteBuffer in, boolean[] taken) throws IOException {
+        int s = in.getInt();
+        if (s < 0 || s >= taken.length || taken[s]) throw new IOException("Uszkodzony zapis (slot " + s + ")");
+        taken[s] = true;
+        return s;
+    }
+
+    private static byte[] utf8(String name) {
+        return name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Tower core(ITower tower) {
+        return (Tower) TowerDecorator.unwrap(tower);
+    }
+
+    private static int nameIndex(List<String> names, String name) {
+        int i = names.indexOf(name);
+        if (i >= 0) return i;
+        names.add(name);
+        return names.size() - 1;
+    }
+}
@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+// Rdzeń symulacji - jeden tick gry, bez Swinga.
+// GamePanel przekazuje akcje gracza jako komendy (submit) wykonywane na początku ticku
+// i rysuje migawkę publikowaną na jego końcu - żywego stanu dotyka tylko wątek gry.
+class Simulation {
+    public static final int TICKS_PER_SECOND = 60;
+
+    private final GameManager gm;
+    private final WaveManager waveManager;
+    private final TowerFactoryManager factoryManager = TowerFactoryManager.getInstance();
+    private final TickClock clock = new TickClock(TICKS_PER_SECOND);
+    private final Queue<IGameCommand> commands = new ConcurrentLinkedQueue<>();
+    private final FrameSnapshotBuffer frames = new FrameSnapshotBuffer();
+    private final TowerTargeting towerTargeting = new TowerTargeting();
+    private ReplayLog replay;   // null - bez nagrywania
+    private RewindBuffer rewind;   // null - bez historii do cofania
+    private Consumer<FrameSnapshot> frameOverlay;   // stan interfejsu dopisywany do migawki (wątek gry)
+    private boolean quiet = false;   // bez komunikatów na konsolę (narzędzia bez okna, np. ReplayPlayer)
+
+    // Zapis jednej akcji do nagrania
+    private interface ReplayWrite {
+        void write(ReplayLog log, long tick) throws IOException;
+    }
+
+    public Simulation() {
+        this(GameManager.getInstance());
+    }
+
+    public Simulation(GameManager gm) {
+        this.gm = gm;
+        this.waveManager = new WaveManager(gm);
+        gm.setClock(clock);
+    }
+
+    public GameManager getGameManager() { return gm; }
+    public WaveManager getWaveManager() { return waveManager; }
+    public TickClock getClock() { return clock; }
+    public TowerTargeting getTowerTargeting() { return towerTargeting; }
+
+    public void setQuiet(boolean quiet) { this.quiet = quiet; }
+
+    // Komunikat dla gracza; błędy zapisu na dysk są wypisywane zawsze
+    void log(String message) {
+        if (!quiet) System.out.println(message);
+    }
+
+    // Komenda z dowolnego wątku (np. EDT), wykonana przez wątek gry na początku następnego ticku
+    public void submit(IGameCommand command) {
+        commands.add(command);
+    }
+
+    // Nagrywanie przyjętych akcji gracza (ReplayLog); odtwarzanie: ReplayPlayer
+    public void startRecording(ReplayLog replay) {
+        this.replay = replay;
+    }
+
+    // Z dowolnego wątku (np. przy zamykaniu programu)
+    public void stopRecording() {
+        ReplayLog r = replay;
+        replay = null;
+        if (r == null) return;
+        try {
+            r.close(clock.getTick());
+        } catch (IOException e) {
+            System.out.println("[POWTÓRKA] Błąd zamykania nagrania: " + e.getMessage());
+        }
+    }
+
+    private void record(ReplayWrite write) {
+        ReplayLog r = replay;
+        if (r == null) return;
+        try {
+            write.write(r, clock.getTick());
+        } catch (IOException e) {
+            System.out.println("[POWTÓRKA] Błąd zapisu, nagrywanie wyłączone: " + e.getMessage());
+            stopRecording();
+        }
+    }
+
+    // Historia ostatnich sekund gry (migawka po każdym ticku) - cofanie i szukanie błędów
+    public void enableRewind(int seconds, int bytes) {
+        rewind = new RewindBuffer(seconds, bytes);
+    }
+
+    public RewindBuffer getRewindBuffer() { return rewind; }
+
+    // Stan interfejsu, który zmienia wątek gry (np. otwarte menu ulepszeń) - dopisywany do każdej
+    // migawki przed publikacją, więc renderer nie czyta pól interfejsu z innego wątku
+    public void setFrameOverlay(Consumer<FrameSnapshot> frameOverlay) {
+        this.frameOverlay = frameOverlay;
+    }
+
+    // Ostatnia opublikowana klatka - dla renderera
+    public FrameSnapshot latestFrame() {
+        return frames.latest();
+    }
+
+    public void tick() {
+        IGameCommand command;
+        while ((command = commands.poll()) != null) {
+            command.execute();
+        }
+
+        clock.advance();
+
+        if (gm.state == GameState.WAVE_IN_PROGRESS) {
+            waveManager.update();
+        }
+        if (gm.state == GameState.PREP_PHASE || gm.state == GameState.WAVE_IN_PROGRESS) {
+            EnemyColumns data = gm.enemyData;
+            data.moveAll(gm.pathTable);
+
+            EntityStore<Enemy> enemies = gm.enemies;
+            for (int i = 0; i < enemies.size(); i++) {
+                Enemy enemy = enemies.get(i);
+                if (enemy.isFinished()) {
+                    gm.takeDamage();
+                    gm.despawnEnemy(i);
+                } else if (!enemy.isAlive()) {
+                    gm.addMoney(enemy.reward);
+                    gm.enemyKilled(enemy.reward);
+                    gm.despawnEnemy(i);
+                }
+            }
+            gm.enemyGrid.rebuild(data);
+
+            towerTargeting.update(gm, gm.getClock().currentTimeMillis());
+
+            // pociski wystrzelone w tym ticku też są aktualizowane
+            EntityStore<Projectile> projectiles = gm.projectiles;
+            for (int i = 0; i < projectiles.size(); i++) {
+                Projectile p = projectiles.get(i);
+                p.update();
+                if (!p.active) {
+                    gm.expireProjectile(i);
+                }
+            }
+        }
+
+        gm.flushTickEvents();
+
+        gm.enemies.flushRemovals();
+        gm.projectiles.flushRemovals();
+
+        FrameSnapshot frame = frames.back();
+        frame.capture(gm, clock.getTick());
+        if (frameOverlay != null) frameOverlay.accept(frame);
+        frames.publish();
+
+        if (rewind != null && gm.state != GameState.MENU) {
+            rewind.capture(this);
+        }
+    }
+
+    // Tryb headless - tyle ticków, ile zdąży procesor (bez czekania na zegar ścienny)
+    public int runTicks(int maxTicks) {
+        int done = 0;
+        while (done < maxTicks && gm.state != GameState.GAME_OVER) {
+            tick();
+            done++;
+        }
+        return done;
+    }
+
+    // --- zapis gry (SaveGame); tylko z wątku gry ---
+
+    public void saveGame(Path file) throws IOException {
+        SaveGame.save(this, file);
+    }
+
+    public void loadGame(Path file) throws IOException {
+        SaveGame.load(this, file);
+        // nagranie zawiera tylko akcje gracza, wczytanego stanu nie da się z niego odtworzyć
+        if (replay != null) {
+            log("[POWTÓRKA] Wczytano zapis gry - nagrywanie zakończone");
+            stopRecording();
+        }
+        if (rewind != null) rewind.clear();
+    }
+
+    // Powrót o podaną liczbę sekund (najdalej do początku historii); -1 - brak historii.
+    // Tak jak wczytanie zapisu kończy nagrywanie powtórki.
+    public long rewind(int seconds) throws IOException {
+        if (rewind == null) return -1;
+        long tick = rewind.rewind(this, seconds);
+        if (tick >= 0 && replay != null) {
+            log("[POWTÓRKA] Cofnięto grę - nagrywanie zakończone");
+            stopRecording();
+        }
+        return tick;
+    }
+
+    // --- akcje gracza ---
+
+    // Nowa gra z losowym ziarnem
+    public void startGame() {
+        startGame(GameRandom.randomSeed());
+    }
+
+    // To samo ziarno i te same komendy gracza odtwarzają grę dokładnie
+    public void startGame(long seed) {
+        gm.setSeed(seed);
+        gm.resetGame();
+        waveManager.reset();
+        if (rewind != null) rewind.clear();
+        record((log, tick) -> log.startGame(tick, seed));
+    }
+
+    public void startWave() {
+        if (gm.state != GameState.PREP_PHASE) return;
+        waveManager.startWave();
+        record(ReplayLog::startWave);
+    }
+
+    public boolean placeTower(String type, int col, int row) {
+        if (col < 0 || col >= gm.COLS || row < 0 || row >= gm.ROWS) return false;
+        if (gm.occupiedMap[col][row]) return false;
+
+        int cost = factoryManager.getTowerCost(type);
+        if (gm.money < cost) return false;
+
+        gm.spendMoney(cost);
+        int tx = col * gm.TILE_SIZE + gm.TILE_SIZE / 2;
+        int ty = row * gm.TILE_SIZE + gm.TILE_SIZE / 2;
+
+        ITower t = factoryManager.createTower(type, tx, ty);
+        gm.towers.add(t);
+        gm.occupiedMap[col][row] = true;
+        gm.towerBuilt(cost);
+        record((log, tick) -> log.placeTower(tick, type, col, row));
+        return true;
+    }
+
+    // 0 - obrażenia, 1 - zasięg, 2 - szybkość strzelania
+    public boolean upgradeTower(int towerIndex, int type) {
+        if (towerIndex < 0 || towerIndex >= gm.towers.size()) return false;
+        ITower tower = gm.towers.get(towerIndex);
+
+        int cost;
+        switch (type) {
+            case TowerStats.UPGRADE_DAMAGE: cost = 100; break;
+            case TowerStats.UPGRADE_RANGE: cost = 80; break;
+            case TowerStats.UPGRADE_FIRE_RATE: cost = 120; break;
+            default: return false;
+        }
+        if (gm.money < cost) return false;
+
+        ITower upgradedTower = TowerDecorator.upgrade(tower, type);
+        gm.spendMoney(cost);
+        gm.towers.set(towerIndex, upgradedTower);
+        gm.towerUpgraded(cost);
+        record((log, tick) -> log.upgradeTower(tick, towerIndex, type));
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+// Siatka przestrzenna wrogów (komórka = jeden kafelek mapy).
+// Przebudowywana raz na tick po ruchu wrogów, wieże pytają tylko o komórki w swoim zasięgu.
+class SpatialGrid {
+    private final int cellSize, cols, rows;
+    private final int[] cellStart;   // początek komórki w tablicy slots (cols*rows + 1 wpisów)
+    private final int[] cellFill;
+    private int[] cellOf = new int[64];
+    private int[] unsorted = new int[64];
+    private int[] slots = new int[64];
+    private int count = 0;
+    private EnemyColumns data;
+
+    public SpatialGrid(int cellSize, int cols, int rows) {
+        this.cellSize = cellSize;
+        this.cols = cols;
+        this.rows = rows;
+        this.cellStart = new int[cols * rows + 1];
+        this.cellFill = new int[cols * rows];
+    }
+
+    // Sortowanie przez zliczanie po slotach kolumn wrogów
+    public void rebuild(EnemyColumns data) {
+        this.data = data;
+        int n = 0;
+        for (int slot = 0; slot < data.highWater(); slot++) {
+            if (!data.isUsed(slot) || !data.alive[slot] || data.finished[slot]) continue;
+            if (n == cellOf.length) {
+                cellOf = Arrays.copyOf(cellOf, n * 2);
+                unsorted = Arrays.copyOf(unsorted, n * 2);
+                slots = new int[n * 2];
+            }
+            cellOf[n] = cellIndex(data.x[slot], data.y[slot]);
+            unsorted[n] = slot;
+            n++;
+        }
+
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < n; i++) cellStart[cellOf[i] + 1]++;
+        for (int c = 0; c < cols * rows; c++) cellStart[c + 1] += cellStart[c];
+
+        System.arraycopy(cellStart, 0, cellFill, 0, cellFill.length);
+        for (int i = 0; i < n; i++) slots[cellFill[cellOf[i]]++] = unsorted[i];
+        count = n;
+    }
+
+    public void clear() {
+        Arrays.fill(cellStart, 0);
+        count = 0;
+    }
+
+    public int size() { return count; }
+
+    // Najbliższy żywy wróg w promieniu range, null jeśli brak
+    public Enemy findNearest(double x, double y, int range) {
+        int target = findNearestSlot(x, y, range);
+        return target >= 0 ? data.view(target) : null;
+    }
+
+    // Jak findNearest, ale zwraca slot w EnemyColumns (-1 jeśli brak). Tylko odczyt - bezpieczne
+    // z wielu wątków naraz, dopóki nikt nie przebudowuje siatki.
+    public int findNearestSlot(double x, double y, int range) {
+        if (count == 0) return -1;
+        int minCol = clampCol((int) Math.floor((x - range) / cellSize));
+        int maxCol = clampCol((int) Math.floor((x + range) / cellSize));
+        int minRow = clampRow((int) Math.floor((y - range) / cellSize));
+        int maxRow = clampRow((int) Math.floor((y + range) / cellSize));
+
+        double[] ex = data.x, ey = data.y;
+        boolean[] alive = data.alive;
+        double rangeSq = (double) range * range;
+        double minDst = Double.MAX_VALUE;
+        int target = -1;
+
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                int cell = r * cols + c;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int s = slots[i];
+                    double dst = (ex[s] - x) * (ex[s] - x) + (ey[s] - y) * (ey[s] - y);
+                    if (dst < rangeSq && dst < minDst && alive[s]) { minDst = dst; target = s; }
+                }
+            }
+        }
+        return target;
+    }
+
+    private int cellIndex(double x, double y) {
+        return clampRow((int) (y / cellSize)) * cols + clampCol((int) (x / cellSize));
+    }
+
+    private int clampCol(int c) { return c < 0 ? 0 : (c >= cols ? cols - 1 : c); }
+    private int clampRow(int r) { return r < 0 ? 0 : (r >= rows ? rows - 1 : r); }
+}
@@ -0,0 +1,229 @@
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+// Wstępnie wyrenderowane sprite'y wrogów, wież, odznak ulepszeń i pocisków.
+// Kształty (wielokąty, obrysy) liczone są raz przy budowie, rysowanie encji to już tylko drawImage.
+// Obrazy mają rozdzielczość ekranu, a encje rysuje się między beginPixels() i przywróceniem
+// transformacji mapy - wtedy kopiowanie idzie 1:1, bez skalowania i interpolacji.
+class SpriteAtlas {
+    private static SpriteAtlas instance;
+
+    // Obraz zakotwiczony w środku encji; pozycja podawana w jednostkach mapy
+    static final class Sprite {
+        final BufferedImage image;
+        final double scale;
+        final int anchor;   // połowa boku w pikselach
+
+        Sprite(BufferedImage image, double scale) {
+            this.image = image;
+            this.scale = scale;
+            this.anchor = image.getWidth() / 2;
+        }
+
+        void draw(Graphics2D g, double x, double y) {
+            g.drawImage(image, (int) (x * scale) - anchor, (int) (y * scale) - anchor, null);
+        }
+    }
+
+    static final int BADGE_DAMAGE = 0, BADGE_RANGE = 1, BADGE_FIRE_RATE = 2;
+
+    private static final Color ICE = new Color(135, 206, 250);
+    private static final Color FROST_GIANT = new Color(70, 130, 180);
+    private static final Color BLIZZARD = new Color(176, 224, 230);
+
+    private double scale = 0;
+    private final Map<String, Sprite> summerEnemies = new HashMap<>();
+    private final Map<String, Sprite> winterEnemies = new HashMap<>();
+    private final Map<Color, Sprite> towers = new HashMap<>();
+    private final Sprite[] badges = new Sprite[3];
+    private Sprite projectile;
+
+    private SpriteAtlas() {}
+
+    public static SpriteAtlas getInstance() {
+        if (instance == null) {
+            instance = new SpriteAtlas();
+            instance.setScale(1.0);
+        }
+        return instance;
+    }
+
+    // Przebudowa przy zmianie skali panelu; typy znane na starcie są renderowane od razu
+    public void setScale(double scale) {
+        if (this.scale == scale) return;
+        this.scale = scale;
+        summerEnemies.clear();
+        winterEnemies.clear();
+        towers.clear();
+
+        for (Enemy prototype : EnemyCache.getPrototypes()) {
+            enemy(prototype.typeId, prototype.color, prototype.size, false);
+            enemy(prototype.typeId, prototype.color, prototype.size, true);
+        }
+        for (TowerFactoryBase factory : TowerFactoryManager.getInstance().getAllFactories().values()) {
+            tower(factory.getTowerColor());
+        }
+        badges[BADGE_DAMAGE] = renderBadge(BADGE_DAMAGE);
+        badges[BADGE_RANGE] = renderBadge(BADGE_RANGE);
+        badges[BADGE_FIRE_RATE] = renderBadge(BADGE_FIRE_RATE);
+        projectile = renderProjectile();
+    }
+
+    public double getScale() { return scale; }
+
+    // Przełącza g z przestrzeni mapy (skala + przesunięcie) na piksele ekranu, dopasowując skalę atlasu.
+    // Wywołujący zapamiętuje transformację mapy i przywraca ją po narysowaniu sprite'ów.
+    public void beginPixels(Graphics2D g) {
+        AffineTransform mapSpace = g.getTransform();
+        setScale(mapSpace.getScaleX());
+        g.setTransform(AffineTransform.getTranslateInstance(
+                Math.round(mapSpace.getTranslateX()), Math.round(mapSpace.getTranslateY())));
+    }
+
+    public Sprite enemy(String typeId, Color color, int size, boolean isWinter) {
+        Map<String, Sprite> sprites = isWinter ? winterEnemies : summerEnemies;
+        Sprite sprite = sprites.get(typeId);
+        if (sprite == null) {
+            sprite = renderEnemy(color, size, isWinter);
+            sprites.put(typeId, sprite);
+        }
+        return sprite;
+    }
+
+    public Sprite tower(Color color) {
+        Sprite sprite = towers.get(color);
+        if (sprite == null) {
+            sprite = renderTower(color);
+            towers.put(color, sprite);
+        }
+        return sprite;
+    }
+
+    public Sprite badge(int type) { return badges[type]; }
+    public Sprite projectile() { return projectile; }
+
+    // --- renderowanie ---
+
+    private Sprite renderEnemy(Color color, int size, boolean isWinter) {
+        int half = size + 2;
+        BufferedImage image = newImage(half);
+        Graphics2D g = begin(image, half);
+
+        if (isWinter && color.equals(ICE)) {
+            int[] xPoints = {0, size, 0, -size};
+            int[] yPoints = {-size, 0, size, 0};
+            g.setColor(color);
+            g.fillPolygon(xPoints, yPoints, 4);
+            g.setColor(Color.WHITE);
+            g.drawPolygon(xPoints, yPoints, 4);
+        } else if (isWinter && color.equals(FROST_GIANT)) {
+            int[] xPoints = new int[6];
+            int[] yPoints = new int[6];
+            for (int i = 0; i < 6; i++) {
+                double angle = Math.PI / 3 * i;
+                xPoints[i] = (int) (size * Math.cos(angle));
+                yPoints[i] = (int) (size * Math.sin(angle));
+            }
+            g.setColor(color);
+            g.fillPolygon(xPoints, yPoints, 6);
+            g.setColor(new Color(200, 220, 255));
+            g.drawPolygon(xPoints, yPoints, 6);
+        } else if (isWinter && color.equals(BLIZZARD)) {
+            int[] xPoints = new int[8];
+            int[] yPoints = new int[8];
+            for (int i = 0; i < 8; i++) {
+                double angle = Math.PI / 4 * i;
+                int r = (i % 2 == 0) ? size : size / 2;
+                xPoints[i] = (int) (r * Math.cos(angle));
+                yPoints[i] = (int) (r * Math.sin(angle));
+            }
+            g.setColor(color);
+            g.fillPolygon(xPoints, yPoints, 8);
+            g.setColor(Color.WHITE);
+            g.drawPolygon(xPoints, yPoints, 8);
+        } else {
+            g.setColor(color);
+            g.fillOval(-size, -size, size * 2, size * 2);
+        }
+        g.dispose();
+        return new Sprite(image, scale);
+    }
+
+    private Sprite renderTower(Color color) {
+        int ts = GameManager.getInstance().TILE_SIZE;
+        int half = ts / 2;
+        BufferedImage image = newImage(half);
+        Graphics2D g = begin(image, half);
+        g.setColor(Color.DARK_GRAY);
+        g.fillRect(-ts / 2 + 4, -ts / 2 + 4, ts - 8, ts - 8);
+        g.setColor(color);
+        g.fillOval(-10, -10, 20, 20);
+        g.dispose();
+        return new Sprite(image, scale);
+    }
+
+    private Sprite renderBadge(int type) {
+        int half = 20;
+        BufferedImage image = newImage(half);
+        Graphics2D g = begin(image, half);
+        g.setStroke(new BasicStroke(2));
+        switch (type) {
+            case BADGE_DAMAGE:
+                // złota ramka
+                g.setColor(new Color(255, 215, 0));
+                g.drawRect(-15, -15, 30, 30);
+                break;
+            case BADGE_RANGE:
+                // niebieski okrąg
+                g.setColor(new Color(52, 152, 219));
+                g.drawOval(-18, -18, 36, 36);
+                break;
+            case BADGE_FIRE_RATE:
+                // czerwony romb
+                g.setColor(new Color(231, 76, 60));
+                g.drawPolygon(new int[]{0, 12, 0, -12}, new int[]{-18, 0, 18, 0}, 4);
+                break;
+        }
+        g.dispose();
+        return new Sprite(image, scale);
+    }
+
+    private Sprite renderProjectile() {
+        int half = 4;
+        BufferedImage image = newImage(half);
+        Graphics2D g = begin(image, half);
+        g.setColor(Color.YELLOW);
+        g.fillOval(-3, -3, 6, 6);
+        g.dispose();
+        return new Sprite(image, scale);
+    }
+
+    // Przezroczysty obraz 2*half x 2*half jednostek mapy w rozdzielczości ekranu (bok parzysty)
+    private BufferedImage newImage(int half) {
+        int px = 2 * (int) Math.ceil(half * scale);
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(px, px, BufferedImage.TYPE_INT_ARGB);
+        }
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        return gc.createCompatibleImage(px, px, Transparency.TRANSLUCENT);
+    }
+
+    // Grafika z (0,0) w środku sprite'a
+    private Graphics2D begin(BufferedImage image, int half) {
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.scale(scale, scale);
+        g.translate(half, half);
+        return g;
+    }
+}
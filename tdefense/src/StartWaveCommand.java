@@ -1,6 +1,6 @@
 class StartWaveCommand implements IGameCommand {
-    private WaveManager wm;
-    public StartWaveCommand(WaveManager wm) { this.wm = wm; }
+    private Simulation simulation;
+    public StartWaveCommand(Simulation simulation) { this.simulation = simulation; }
     @Override
-    public void execute() { wm.startWave(); }
+    public void execute() { simulation.startWave(); }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+import java.util.Arrays;
+
+// Zdarzenia jednego ticku zebrane w jedną paczkę (tryb wsadowy GameManagera).
+// Obserwatorzy dostają jedno onTickEvents() na tick zamiast kilku powiadomień na każdego wroga.
+class TickEventBatch {
+    public int moneyDelta = 0;
+    public int livesLost = 0;
+    public int lives = 0;          // stan żyć po ticku (ważny, gdy livesLost > 0)
+    public int kills = 0;
+    public int killReward = 0;
+    private int moneyChanges = 0;
+
+    private int[] killRewards = new int[64];
+    private int[] moneyDeltas = new int[64];   // pojedyncze zmiany - dla dziennika (JournalObserver)
+
+    public void addMoney(int amount) {
+        if (moneyChanges == moneyDeltas.length) moneyDeltas = Arrays.copyOf(moneyDeltas, moneyChanges * 2);
+        moneyDeltas[moneyChanges++] = amount;
+        moneyDelta += amount;
+    }
+
+    public void addKill(int reward) {
+        if (kills == killRewards.length) killRewards = Arrays.copyOf(killRewards, kills * 2);
+        killRewards[kills++] = reward;
+        killReward += reward;
+    }
+
+    public void loseLife(int livesLeft) {
+        livesLost++;
+        lives = livesLeft;
+    }
+
+    public int getKillReward(int index) { return killRewards[index]; }
+
+    public int getMoneyChanges() { return moneyChanges; }
+    public int getMoneyDelta(int index) { return moneyDeltas[index]; }
+
+    public boolean hasMoneyChange() { return moneyChanges > 0; }
+
+    public boolean isEmpty() {
+        return moneyChanges == 0 && kills == 0 && livesLost == 0;
+    }
+
+    public void clear() {
+        moneyDelta = 0;
+        livesLost = 0;
+        lives = 0;
+        kills = 0;
+        killReward = 0;
+        moneyChanges = 0;
+    }
+
+    // Rozwinięcie paczki w pojedyncze zdarzenia - dla obserwatorów bez obsługi paczek
+    public void replayTo(GameObserver o) {
+        for (int i = 0; i < kills; i++) {
+            o.onGameEvent(GameEventType.ENEMY_KILLED, killRewards[i]);
+        }
+        if (moneyChanges > 0) {
+            o.onGameEvent(GameEventType.MONEY_CHANGED, moneyDelta);
+        }
+        if (livesLost > 0) {
+            o.onGameEvent(GameEventType.LIVES_CHANGED, lives);
+        }
+    }
+}
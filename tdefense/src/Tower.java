@@ -2,44 +2,54 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 
 class Tower implements ITower {
-    public int x, y, range, damage, cooldown;
+    public int x, y;
     public String name;
+    public String typeId;   // klucz typu w TowerFactoryManager (np. "ARCHER") - nadawany przy tworzeniu
     public Color color;
-    private long lastShotTime = 0;
+    private final TowerStats stats;
+    private long lastShotTime = Long.MIN_VALUE / 2; // gotowa do strzału od razu
 
     public Tower(int x, int y, String name, int range, int cooldown, int damage, Color color) {
-        this.x = x; this.y = y; this.name = name;
-        this.range = range; this.cooldown = cooldown; this.damage = damage; this.color = color;
+        this.x = x; this.y = y; this.name = name; this.color = color;
+        this.stats = new TowerStats(damage, range, cooldown);
     }
 
     @Override
-    public int getDamage() { return damage; }
+    public int getDamage() { return stats.damage; }
     @Override
-    public int getRange() { return range; }
+    public int getRange() { return stats.range; }
     @Override
     public int getX() { return x; }
     @Override
     public int getY() { return y; }
+    @Override
+    public TowerStats getStats() { return stats; }
+
+    // Stan cooldownu - dla zapisu gry
+    long getLastShotTime() { return lastShotTime; }
+    void setLastShotTime(long lastShotTime) { this.lastShotTime = lastShotTime; }
+
+    @Override
+    public void update(GameManager gm) {
+        long now = gm.getClock().currentTimeMillis();
+        int target = aim(gm, now);
+        if (target >= 0) fire(gm, target, now);
+    }
+
+    @Override
+    public int aim(GameManager gm, long now) {
+        if (now - lastShotTime < stats.cooldown) return -1;
+        return gm.enemyGrid.findNearestSlot(x, y, stats.range);
+    }
 
     @Override
-    public void update() {
-        if (System.currentTimeMillis() - lastShotTime < cooldown) return;
-        Enemy target = null;
-        double minDst = Double.MAX_VALUE;
-        for (Enemy e : GameManager.getInstance().enemies) {
-            double dst = (e.x - x)*(e.x - x) + (e.y - y)*(e.y - y);
-            if (dst < range * range && dst < minDst && e.alive) { minDst = dst; target = e; }
-        }
-        if (target != null) {
-            GameManager.getInstance().projectiles.add(new Projectile(x, y, target, getDamage()));
-            lastShotTime = System.currentTimeMillis();
-        }
+    public void fire(GameManager gm, int enemySlot, long now) {
+        gm.fireProjectile(x, y, gm.enemyData.view(enemySlot), stats.damage);
+        lastShotTime = now;
     }
 
     @Override
     public void draw(Graphics2D g) {
-        int ts = GameManager.getInstance().TILE_SIZE;
-        g.setColor(Color.DARK_GRAY); g.fillRect(x - ts/2 + 4, y - ts/2 + 4, ts - 8, ts - 8);
-        g.setColor(color); g.fillOval(x - 10, y - 10, 20, 20);
+        SpriteAtlas.getInstance().tower(color).draw(g, x, y);
     }
 }
\ No newline at end of file
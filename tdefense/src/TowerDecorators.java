@@ -1,88 +1,98 @@
-import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.BasicStroke;
 
 // Bazowy dekorator
+// Ulepszenie wlicza do TowerStats tylko upgrade() - sam dekorator niczego nie zmienia,
+// łańcuch dekoratorów służy już tylko do rysowania i zapisu kolejności ulepszeń.
 abstract class TowerDecorator implements ITower {
     protected ITower wrappedTower;
-    public TowerDecorator(ITower tower) { this.wrappedTower = tower; }
+    protected final ITower core;   // wieża na dnie łańcucha
+    public TowerDecorator(ITower tower) {
+        this.wrappedTower = tower;
+        this.core = tower instanceof TowerDecorator ? ((TowerDecorator) tower).core : tower;
+    }
 
-    public void update() { wrappedTower.update(); }
+    public void update(GameManager gm) { core.update(gm); }
+    public int aim(GameManager gm, long now) { return core.aim(gm, now); }
+    public void fire(GameManager gm, int enemySlot, long now) { core.fire(gm, enemySlot, now); }
     public void draw(Graphics2D g) { wrappedTower.draw(g); }
-    public int getDamage() { return wrappedTower.getDamage(); }
-    public int getRange() { return wrappedTower.getRange(); }
-    public int getX() { return wrappedTower.getX(); }
-    public int getY() { return wrappedTower.getY(); }
+    public int getDamage() { return core.getStats().damage; }
+    public int getRange() { return core.getStats().range; }
+    public int getX() { return core.getX(); }
+    public int getY() { return core.getY(); }
+    public TowerStats getStats() { return core.getStats(); }
+
+    // Rodzaj ulepszenia (TowerStats.UPGRADE_*) - łańcuch dekoratorów da się odtworzyć po kolei
+    public abstract int getUpgradeType();
+
+    public ITower getWrappedTower() { return wrappedTower; }
+
+    // Wieża na dnie łańcucha (dla wieży bez ulepszeń - ona sama)
+    public static ITower unwrap(ITower tower) {
+        return tower instanceof TowerDecorator ? ((TowerDecorator) tower).core : tower;
+    }
+
+    // Ulepszona wieża: nowy dekorator na wierzchu i ulepszenie wliczone do wspólnych TowerStats
+    public static TowerDecorator upgrade(ITower tower, int upgradeType) {
+        TowerDecorator upgraded;
+        switch (upgradeType) {
+            case TowerStats.UPGRADE_DAMAGE: upgraded = new DamageUpgradeDecorator(tower); break;
+            case TowerStats.UPGRADE_RANGE: upgraded = new RangeUpgradeDecorator(tower); break;
+            case TowerStats.UPGRADE_FIRE_RATE: upgraded = new FireRateUpgradeDecorator(tower); break;
+            default: throw new IllegalArgumentException("Nieznane ulepszenie: " + upgradeType);
+        }
+        upgraded.getStats().applyUpgrade(upgradeType);
+        return upgraded;
+    }
 }
 
 // 1. Dekorator zwiększający obrażenia
 class DamageUpgradeDecorator extends TowerDecorator {
-    public DamageUpgradeDecorator(ITower tower) { super(tower); }
+    public DamageUpgradeDecorator(ITower tower) {
+        super(tower);
+    }
 
     @Override
-    public int getDamage() {
-        return wrappedTower.getDamage() + 25;
-    }
+    public int getUpgradeType() { return TowerStats.UPGRADE_DAMAGE; }
 
     @Override
     public void draw(Graphics2D g) {
         wrappedTower.draw(g);
         // Złota ramka
-        g.setColor(new Color(255, 215, 0));
-        g.setStroke(new BasicStroke(2));
-        g.drawRect(getX() - 15, getY() - 15, 30, 30);
-        g.setStroke(new BasicStroke(1));
+        SpriteAtlas.getInstance().badge(SpriteAtlas.BADGE_DAMAGE).draw(g, getX(), getY());
     }
 }
 
 // 2. Dekorator zwiększający zasięg
 class RangeUpgradeDecorator extends TowerDecorator {
-    public RangeUpgradeDecorator(ITower tower) { super(tower); }
+    public RangeUpgradeDecorator(ITower tower) {
+        super(tower);
+    }
 
     @Override
-    public int getRange() {
-        return wrappedTower.getRange() + 50;
-    }
+    public int getUpgradeType() { return TowerStats.UPGRADE_RANGE; }
 
     @Override
     public void draw(Graphics2D g) {
         wrappedTower.draw(g);
         // Niebieska ramka
-        g.setColor(new Color(52, 152, 219));
-        g.setStroke(new BasicStroke(2));
-        g.drawOval(getX() - 18, getY() - 18, 36, 36);
-        g.setStroke(new BasicStroke(1));
+        SpriteAtlas.getInstance().badge(SpriteAtlas.BADGE_RANGE).draw(g, getX(), getY());
     }
 }
 
 // 3. Dekorator zwiększający szybkość strzelania (zmniejszający cooldown)
 class FireRateUpgradeDecorator extends TowerDecorator {
-    public FireRateUpgradeDecorator(ITower tower) { super(tower); }
+    public FireRateUpgradeDecorator(ITower tower) {
+        super(tower);
+    }
 
     @Override
-    public void update() {
-
-        wrappedTower.update();
-        wrappedTower.update();
-        wrappedTower.update();
-        wrappedTower.update();
-    }
+    public int getUpgradeType() { return TowerStats.UPGRADE_FIRE_RATE; }
 
     @Override
     public void draw(Graphics2D g) {
         wrappedTower.draw(g);
         // Czerwona ramka
-        g.setColor(new Color(231, 76, 60));
-        g.setStroke(new BasicStroke(2));
-        int[] xPoints = {getX(), getX() + 12, getX(), getX() - 12};
-        int[] yPoints = {getY() - 18, getY(), getY() + 18, getY()};
-        g.drawPolygon(xPoints, yPoints, 4);
-        g.setStroke(new BasicStroke(1));
+        SpriteAtlas.getInstance().badge(SpriteAtlas.BADGE_FIRE_RATE).draw(g, getX(), getY());
     }
 
 }
-
-
-class UpgradeDecorator extends DamageUpgradeDecorator {
-    public UpgradeDecorator(ITower tower) { super(tower); }
-}
\ No newline at end of file
@@ -0,0 +1,37 @@
+// Statystyki wieży po nałożeniu wszystkich ulepszeń - jeden płaski rekord zamiast łańcucha dekoratorów.
+// TowerDecorator.upgrade zmienia go raz przy ulepszeniu, w ticku wieża czyta tylko pola.
+class TowerStats {
+    public static final int UPGRADE_DAMAGE = 0;
+    public static final int UPGRADE_RANGE = 1;
+    public static final int UPGRADE_FIRE_RATE = 2;
+
+    public int damage, range, cooldown;
+    public int damageUpgrades, rangeUpgrades, fireRateUpgrades;
+
+    public TowerStats(int damage, int range, int cooldown) {
+        this.damage = damage;
+        this.range = range;
+        this.cooldown = cooldown;
+    }
+
+    public void applyUpgrade(int type) {
+        switch (type) {
+            case UPGRADE_DAMAGE:
+                damage += 25;
+                damageUpgrades++;
+                break;
+            case UPGRADE_RANGE:
+                range += 50;
+                rangeUpgrades++;
+                break;
+            case UPGRADE_FIRE_RATE:
+                cooldown = Math.max(1, cooldown / 2);
+                fireRateUpgrades++;
+                break;
+        }
+    }
+
+    public int getUpgradeCount() {
+        return damageUpgrades + rangeUpgrades + fireRateUpgrades;
+    }
+}
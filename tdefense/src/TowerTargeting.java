@@ -0,0 +1,83 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Aktualizacja wież w dwóch fazach:
+//  1. wybór celu (ITower.aim) - tylko odczyt siatki i kolumn wrogów, przy wielu wieżach równolegle na ForkJoinPool,
+//  2. strzały (ITower.fire) - sekwencyjnie, w kolejności wież.
+// W fazie 1 nikt nie zmienia stanu, a pociski powstają w tej samej kolejności co w pętli szeregowej,
+// więc wynik ticku jest identyczny niezależnie od liczby wątków.
+class TowerTargeting {
+    static final int PARALLEL_THRESHOLD = 64;   // poniżej tego podział na zadania kosztuje więcej niż daje
+    private static final int LEAF_SIZE = 32;
+
+    private final ForkJoinPool pool;
+    private boolean parallel = true;
+    private int[] targets = new int[64];
+
+    public TowerTargeting() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public TowerTargeting(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void setParallel(boolean parallel) { this.parallel = parallel; }
+    public boolean isParallel() { return parallel; }
+
+    public void update(GameManager gm, long now) {
+        EntityStore<ITower> towers = gm.towers;
+        int n = aimAll(gm, now);
+        for (int i = 0; i < n; i++) {
+            if (targets[i] >= 0) towers.get(i).fire(gm, targets[i], now);
+        }
+    }
+
+    // Faza 1: cel każdej wieży w targets[i]; zwraca liczbę wież
+    public int aimAll(GameManager gm, long now) {
+        int n = gm.towers.size();
+        if (targets.length < n) targets = new int[n * 2];
+        if (parallel && n >= PARALLEL_THRESHOLD && pool.getParallelism() > 1) {
+            pool.invoke(new AimTask(gm, targets, now, 0, n));
+        } else {
+            aimRange(gm, targets, now, 0, n);
+        }
+        return n;
+    }
+
+    public int target(int towerIndex) { return targets[towerIndex]; }
+
+    private static void aimRange(GameManager gm, int[] targets, long now, int from, int to) {
+        EntityStore<ITower> towers = gm.towers;
+        for (int i = from; i < to; i++) {
+            targets[i] = towers.get(i).aim(gm, now);
+        }
+    }
+
+    @SuppressWarnings("serial")   // zadanie żyje tylko w puli, nigdy nie jest serializowane
+    private static final class AimTask extends RecursiveAction {
+        private final GameManager gm;
+        private final int[] targets;
+        private final long now;
+        private final int from, to;
+
+        AimTask(GameManager gm, int[] targets, long now, int from, int to) {
+            this.gm = gm;
+            this.targets = targets;
+            this.now = now;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                aimRange(gm, targets, now, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new AimTask(gm, targets, now, from, mid),
+                      new AimTask(gm, targets, now, mid, to));
+        }
+    }
+}
@@ -1,9 +1,43 @@
 class WaveManager {
-    private GameManager gm = GameManager.getInstance();
+    public static final int LAST_WAVE = 20;
+
+    private GameManager gm;
     private int enemiesLeftToSpawn = 0;
-    private long lastSpawnTime = 0;
+    private int waveSize = 0;
+    private long lastSpawnTime = Long.MIN_VALUE / 2;
     private long spawnDelay = 800;
 
+    public WaveManager() {
+        this(GameManager.getInstance());
+    }
+
+    public WaveManager(GameManager gm) {
+        this.gm = gm;
+    }
+
+    // Nowa gra - nic nie zostaje z poprzedniej (np. wrogowie niewypuszczeni przed końcem gry)
+    public void reset() {
+        enemiesLeftToSpawn = 0;
+        waveSize = 0;
+        lastSpawnTime = Long.MIN_VALUE / 2;
+        spawnDelay = 800;
+    }
+
+    // Postęp spawnu - dla zapisu gry
+    public int getEnemiesLeftToSpawn() { return enemiesLeftToSpawn; }
+    public long getLastSpawnTime() { return lastSpawnTime; }
+    public long getSpawnDelay() { return spawnDelay; }
+
+    public void restore(int enemiesLeftToSpawn, int waveSize, long lastSpawnTime, long spawnDelay) {
+        this.enemiesLeftToSpawn = enemiesLeftToSpawn;
+        this.waveSize = waveSize;
+        this.lastSpawnTime = lastSpawnTime;
+        this.spawnDelay = spawnDelay;
+    }
+
+    // Liczba wrogów bieżącej (ostatnio rozpoczętej) fali
+    public int getWaveSize() { return waveSize; }
+
     public void startWave() {
         if(gm.state == GameState.PREP_PHASE) {
             gm.state = GameState.WAVE_IN_PROGRESS;
@@ -17,6 +51,7 @@ class WaveManager {
             } else {
                 enemiesLeftToSpawn = 85 + (gm.wave * 3);
             }
+            waveSize = enemiesLeftToSpawn;
 
             if (gm.wave >= 15) {
                 spawnDelay = 500;
@@ -35,24 +70,21 @@ class WaveManager {
     public void update() {
         if (gm.state != GameState.WAVE_IN_PROGRESS) return;
 
-        if (enemiesLeftToSpawn > 0 && System.currentTimeMillis() - lastSpawnTime > spawnDelay) {
+        long now = gm.getClock().currentTimeMillis();
+        if (enemiesLeftToSpawn > 0 && now - lastSpawnTime > spawnDelay) {
             String type = selectEnemyType();
 
-            Enemy e = EnemyCache.getEnemy(type);
-
             int healthBonus = calculateHealthBonus();
-            e.buffHealth(healthBonus);
-
-            gm.enemies.add(e);
+            gm.spawnEnemy(type, healthBonus);
             enemiesLeftToSpawn--;
-            lastSpawnTime = System.currentTimeMillis();
+            lastSpawnTime = now;
         }
 
         if (enemiesLeftToSpawn == 0 && gm.enemies.isEmpty()) {
             gm.waveCompleted(gm.wave);
 
             // Sprawdzenie czy gra się kończy po 20 falach
-            if (gm.wave >= 20) {
+            if (gm.wave >= LAST_WAVE) {
                 gm.state = GameState.GAME_OVER;
                 return;
             }
@@ -68,7 +100,7 @@ class WaveManager {
 
     private String selectEnemyType() {
         boolean isWinter = gm.wave >= 11;
-        double r = Math.random();
+        double r = gm.getSpawnRandom().nextDouble();
 
         if (isWinter) {
             // Zimowi przeciwnicy